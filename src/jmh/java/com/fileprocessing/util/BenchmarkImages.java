@@ -0,0 +1,62 @@
+package com.fileprocessing.util;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.fileprocessing.model.FileModel;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Fixtures shared by the benchmarks.
+ */
+final class BenchmarkImages {
+
+    private BenchmarkImages() {
+    }
+
+    /**
+     * Creates an encoded image with a gradient and some shapes, so that codecs have realistic work to do
+     * instead of compressing a single flat colour.
+     *
+     * @param format ImageIO format name, e.g. "png" or "jpg"
+     * @param side   width and height in pixels
+     */
+    static FileModel image(String format, int side) {
+        BufferedImage image = new BufferedImage(side, side, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setPaint(new GradientPaint(0, 0, Color.BLUE, side, side, Color.ORANGE));
+            g.fillRect(0, 0, side, side);
+            g.setColor(Color.WHITE);
+            for (int i = 0; i < side; i += Math.max(1, side / 16)) {
+                g.drawOval(i / 2, i / 3, side / 4, side / 5);
+            }
+        } finally {
+            g.dispose();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, format, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new FileModel("bench-" + format + "-" + side, "bench_" + side + "." + format,
+                out.toByteArray(), format, out.size());
+    }
+
+    /**
+     * Silences the per-call info logging of the measured code, which would otherwise dominate the numbers.
+     */
+    static void quietLogging() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    }
+}
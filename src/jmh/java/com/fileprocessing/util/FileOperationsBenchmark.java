@@ -0,0 +1,114 @@
+package com.fileprocessing.util;
+
+import com.fileprocessing.FileSpec.OperationType;
+import com.fileprocessing.compression.CompressionCodecs;
+import com.fileprocessing.compression.GzipCodec;
+import com.fileprocessing.concurrency.ThreadPoolManager;
+import com.fileprocessing.config.CompressionProperties;
+import com.fileprocessing.config.ThreadPoolProperties;
+import com.fileprocessing.model.FileModel;
+import com.fileprocessing.model.FileOperation;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Throughput of the individual file operations, per image format and size.
+ * <p>
+ *  Each operation is measured on its own, decoding the image itself as it does when it is the only
+ *  operation requested for a file. Run with {@code -prof gc} (the default of the {@code jmh} profile)
+ *  to get allocation rates alongside the timings.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FileOperationsBenchmark {
+
+    @Param({"png", "jpg"})
+    public String format;
+
+    @Param({"256", "1024", "2048"})
+    public int side;
+
+    private FileModel file;
+    private ThreadPoolManager threadPoolManager;
+    private CompressionCodecs codecs;
+    private FileOperation compression;
+    private Path compressionOutput;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkImages.quietLogging();
+        file = BenchmarkImages.image(format, side);
+
+        // Same codec wiring and default codec/level selection as the service
+        CompressionProperties compressionProperties = new CompressionProperties();
+        threadPoolManager = new ThreadPoolManager(new ThreadPoolProperties());
+        codecs = new CompressionCodecs(List.of(new GzipCodec(compressionProperties, threadPoolManager)),
+                compressionProperties);
+        compression = FileOperation.builder()
+                .operationType(OperationType.FILE_COMPRESSION)
+                .parameters(Map.of())
+                .build();
+        compressionOutput = Files.createTempDirectory("compressed_files");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        threadPoolManager.shutdown();
+        try (Stream<Path> outputs = Files.list(compressionOutput)) {
+            for (Path output : outputs.toList()) {
+                Files.delete(output);
+            }
+        }
+        Files.delete(compressionOutput);
+    }
+
+    @Benchmark
+    public void validateFile() {
+        FileOperations.validateFile(file);
+    }
+
+    @Benchmark
+    public Map<String, String> extractMetadata() {
+        return FileOperations.extractMetadata(file);
+    }
+
+    @Benchmark
+    public String calculateChecksum() {
+        return FileOperations.calculateChecksum(file.data());
+    }
+
+    @Benchmark
+    public FileModel resizeImage() {
+        return FileOperations.resizeImage(file, 800, 600);
+    }
+
+    @Benchmark
+    public FileModel convertFormat() {
+        return FileOperations.convertFormat(file, "png".equals(format) ? "jpg" : "png");
+    }
+
+    @Benchmark
+    public Path compressFile() {
+        // Each invocation replaces the previous output, so the directory holds a single file
+        CompressionCodecs.Selection selection = codecs.select(compression, file);
+        return FileOperations.compressFile(file, selection.codec(), selection.level(), compressionOutput).path();
+    }
+
+    @Benchmark
+    public Path storeFile() {
+        // Same content every time: measures hashing plus the deduplicated reference update
+        return FileOperations.storeFile(file);
+    }
+}
@@ -0,0 +1,86 @@
+package com.fileprocessing.util;
+
+import com.fileprocessing.FileSpec.File;
+import com.fileprocessing.FileSpec.FileProcessingRequest;
+import com.fileprocessing.FileSpec.FileProcessingSummary;
+import com.fileprocessing.FileSpec.OperationStatus;
+import com.fileprocessing.FileSpec.OperationType;
+import com.fileprocessing.model.FileModel;
+import com.fileprocessing.model.FileOperationResultModel;
+import com.fileprocessing.model.FileProcessingRequestModel;
+import com.fileprocessing.model.FileProcessingSummaryModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Cost of converting between the gRPC messages and the internal models, including the serialized
+ * round trip of a request as received from and a summary as sent to a client.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProtoConverterBenchmark {
+
+    @Param({"png", "jpg"})
+    public String format;
+
+    @Param({"256", "2048"})
+    public int side;
+
+    /** Number of files per request, and of results per summary. */
+    @Param({"1", "32"})
+    public int files;
+
+    private FileModel file;
+    private byte[] serializedRequest;
+    private FileProcessingSummaryModel summary;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkImages.quietLogging();
+        file = BenchmarkImages.image(format, side);
+
+        File fileProto = ProtoConverter.toProto(file);
+        FileProcessingRequest.Builder request = FileProcessingRequest.newBuilder()
+                .addOperations(OperationType.VALIDATE);
+        IntStream.range(0, files).forEach(i -> request.addFiles(fileProto.toBuilder().setFileId("f" + i)));
+        serializedRequest = request.build().toByteArray();
+
+        Instant now = Instant.now();
+        List<FileOperationResultModel> results = IntStream.range(0, files)
+                .mapToObj(i -> FileOperationResultModel.builder()
+                        .fileId("f" + i)
+                        .operationType(OperationType.VALIDATE)
+                        .status(OperationStatus.SUCCESS)
+                        .details("Operation completed successfully")
+                        .startTime(now)
+                        .endTime(now)
+                        .resultLocation("/mock/location/" + file.fileName())
+                        .build())
+                .toList();
+        summary = new FileProcessingSummaryModel(files, files, 0, results);
+    }
+
+    @Benchmark
+    public FileModel fileRoundTrip() {
+        return ProtoConverter.toInternalFileModel(ProtoConverter.toProto(file));
+    }
+
+    @Benchmark
+    public FileProcessingRequestModel parseRequest() throws Exception {
+        return ProtoConverter.toInternalModel(FileProcessingRequest.parseFrom(serializedRequest));
+    }
+
+    @Benchmark
+    public byte[] serializeSummary() {
+        FileProcessingSummary proto = ProtoConverter.toProto(summary);
+        return proto.toByteArray();
+    }
+}
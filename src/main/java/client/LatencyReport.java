@@ -0,0 +1,60 @@
+package client;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency histograms and error counts of a load run, keyed by name (an RPC or an operation type).
+ * <p>Thread-safe; values are recorded from gRPC callback threads.</p>
+ */
+final class LatencyReport {
+
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final ConcurrentMap<String, Recorder> recorders = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLong> errors = new ConcurrentHashMap<>();
+
+    void record(String name, long latencyNanos) {
+        recorders.computeIfAbsent(name, key -> new Recorder(3)).recordValue(Math.max(0, latencyNanos));
+    }
+
+    void recordError(String name) {
+        errors.computeIfAbsent(name, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Prints throughput and latency percentiles of every name over the given recorded period.
+     */
+    void print(PrintStream out, String title, double seconds) {
+        Map<String, Histogram> histograms = new TreeMap<>();
+        recorders.forEach((name, recorder) -> histograms.put(name, recorder.getIntervalHistogram()));
+        errors.keySet().forEach(name -> histograms.computeIfAbsent(name, key -> new Histogram(3)));
+
+        out.println();
+        out.println(title);
+        out.printf("%-28s %9s %9s %7s %9s %9s %9s %9s %9s%n",
+                "name", "count", "per sec", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        histograms.forEach((name, histogram) -> out.printf("%-28s %9d %9.1f %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name,
+                histogram.getTotalCount(),
+                histogram.getTotalCount() / seconds,
+                errors.getOrDefault(name, new AtomicLong()).get(),
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue())));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / NANOS_PER_MILLI;
+    }
+}
@@ -0,0 +1,305 @@
+package client;
+
+import client.LoadGeneratorOptions.Rpc;
+import com.fileprocessing.FileProcessingServiceGrpc;
+import com.fileprocessing.FileProcessingServiceGrpc.FileProcessingServiceStub;
+import com.fileprocessing.FileSpec.File;
+import com.fileprocessing.FileSpec.FileOperationResult;
+import com.fileprocessing.FileSpec.FileProcessingRequest;
+import com.fileprocessing.FileSpec.FileProcessingSummary;
+import com.fileprocessing.FileSpec.FileUploadRequest;
+import com.fileprocessing.FileSpec.OperationStatus;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Timestamp;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.stub.StreamObserver;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load generator for capacity planning against a running server.
+ * <p>
+ *  Drives ProcessFile, StreamFileOperations, UploadFiles and LiveFileProcessing in turn over several
+ *  channels, with real image payloads. With {@code --rate} requests are issued open-loop on a fixed
+ *  schedule and latency is measured from the scheduled start, so a stalled server is not hidden by
+ *  the client slowing down (coordinated omission): a request that waits for one of the
+ *  {@code --concurrency} permits counts that wait, and scheduled requests that could not be sent
+ *  before the end of the run are counted as errors of their RPC. Otherwise {@code --concurrency}
+ *  requests are kept in flight. Every request has a deadline of {@code --timeout} seconds, so a hung
+ *  RPC fails as an error instead of holding its permit.
+ * </p>
+ * <p>
+ *  After the warmup, it reports throughput and latency percentiles per RPC (end to end) and per
+ *  operation type (server-side execution time from the result timestamps).
+ * </p>
+ * <p>Example: {@code --rpcs=process,live --rate=200 --concurrency=256 --files=8 --image-size=2048}</p>
+ */
+public class LoadGeneratorClient {
+
+    private final LoadGeneratorOptions options;
+    private final List<ManagedChannel> channels = new ArrayList<>();
+    private final List<FileProcessingServiceStub> stubs = new ArrayList<>();
+    private final List<File> payload;
+    private final LatencyReport report = new LatencyReport();
+
+    LoadGeneratorClient(LoadGeneratorOptions options) {
+        this.options = options;
+        for (int i = 0; i < options.channels(); i++) {
+            ManagedChannel channel = ManagedChannelBuilder.forAddress(options.host(), options.port())
+                    .usePlaintext()
+                    .maxInboundMessageSize(64 * 1024 * 1024)
+                    .build();
+            channels.add(channel);
+            stubs.add(FileProcessingServiceGrpc.newStub(channel));
+        }
+        this.payload = createPayload(options);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        LoadGeneratorOptions options;
+        try {
+            options = LoadGeneratorOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadGeneratorOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        LoadGeneratorClient client = new LoadGeneratorClient(options);
+        try {
+            client.run();
+        } finally {
+            client.shutdown();
+        }
+    }
+
+    void run() throws InterruptedException {
+        System.out.printf("Load: %s, %s, %d channel(s), concurrency %d, %d x %dpx %s per request, %ds warmup + %ds, %ds timeout%n",
+                options.rpcs(), options.rate() > 0 ? options.rate() + " req/s open loop" : "closed loop",
+                options.channels(), options.concurrency(), options.filesPerRequest(), options.imageSize(),
+                options.imageFormat(), options.warmupSeconds(), options.durationSeconds(), options.timeoutSeconds());
+
+        Semaphore inFlight = new Semaphore(options.concurrency());
+        long intervalNanos = options.rate() > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / options.rate()) : 0;
+        long start = System.nanoTime();
+        long recordFromNanos = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds());
+        long end = recordFromNanos + TimeUnit.SECONDS.toNanos(options.durationSeconds());
+
+        long next = start;
+        long sequence = 0;
+        while (System.nanoTime() < end) {
+            long intendedStart;
+            if (intervalNanos > 0) {
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                intendedStart = next;
+                next += intervalNanos;
+                inFlight.acquire(); // time spent waiting here counts towards the latency
+            } else {
+                inFlight.acquire();
+                intendedStart = System.nanoTime();
+            }
+            if (System.nanoTime() >= end) {
+                inFlight.release();
+                next = intendedStart; // not sent, see below
+                break;
+            }
+            boolean measured = intendedStart >= recordFromNanos;
+
+            Rpc rpc = options.rpcs().get((int) (sequence % options.rpcs().size()));
+            FileProcessingServiceStub stub = stubs.get((int) (sequence % stubs.size()))
+                    .withDeadlineAfter(options.timeoutSeconds(), TimeUnit.SECONDS);
+            List<File> files = filesFor(sequence++);
+            call(rpc, stub, files, measured).whenComplete((ignored, ex) -> {
+                inFlight.release();
+                if (!measured) {
+                    return;
+                }
+                if (ex != null) {
+                    report.recordError(rpc.name());
+                } else {
+                    report.record(rpc.name(), System.nanoTime() - intendedStart);
+                }
+            });
+        }
+
+        // Requests scheduled before the end but never sent, because every permit was held until then
+        long notSent = 0;
+        for (long intendedStart = next; intervalNanos > 0 && intendedStart < end; intendedStart += intervalNanos) {
+            if (intendedStart >= recordFromNanos) {
+                report.recordError(options.rpcs().get((int) (sequence % options.rpcs().size())).name());
+                notSent++;
+            }
+            sequence++;
+        }
+        if (notSent > 0) {
+            System.err.println(notSent + " scheduled requests were not sent before the end and are counted as errors");
+        }
+
+        // Every request has a deadline, so all of them complete shortly after it
+        long drainSeconds = options.timeoutSeconds() + 5L;
+        if (!inFlight.tryAcquire(options.concurrency(), drainSeconds, TimeUnit.SECONDS)) {
+            System.err.println("Some requests were still in flight after " + drainSeconds + "s and are not reported");
+        }
+        report.print(System.out, "Results over " + options.durationSeconds() + "s "
+                + "(RPCs: end-to-end latency; operations: server-side execution time)", options.durationSeconds());
+    }
+
+    void shutdown() throws InterruptedException {
+        for (ManagedChannel channel : channels) {
+            channel.shutdown();
+        }
+        for (ManagedChannel channel : channels) {
+            channel.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private CompletableFuture<Void> call(Rpc rpc, FileProcessingServiceStub stub, List<File> files,
+                                         boolean measured) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        FileProcessingRequest request = FileProcessingRequest.newBuilder()
+                .addAllFiles(files)
+                .addAllOperations(options.operations())
+                .build();
+
+        switch (rpc) {
+            case PROCESS_FILE -> stub.processFile(request, summaryObserver(done, measured));
+            case STREAM_FILE_OPERATIONS -> stub.streamFileOperations(request, resultObserver(done, measured));
+            case UPLOAD_FILES -> send(stub.uploadFiles(summaryObserver(done, measured)), files);
+            case LIVE_FILE_PROCESSING -> send(stub.liveFileProcessing(resultObserver(done, measured)), files);
+        }
+        return done;
+    }
+
+    private void send(StreamObserver<FileUploadRequest> requests, List<File> files) {
+        for (File file : files) {
+            requests.onNext(FileUploadRequest.newBuilder()
+                    .setFile(file)
+                    .addAllOperations(options.operations())
+                    .build());
+        }
+        requests.onCompleted();
+    }
+
+    private StreamObserver<FileProcessingSummary> summaryObserver(CompletableFuture<Void> done, boolean measured) {
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(FileProcessingSummary summary) {
+                if (measured) {
+                    summary.getResultsList().forEach(LoadGeneratorClient.this::recordOperation);
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                done.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+                done.complete(null);
+            }
+        };
+    }
+
+    private StreamObserver<FileOperationResult> resultObserver(CompletableFuture<Void> done, boolean measured) {
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(FileOperationResult result) {
+                if (measured) {
+                    recordOperation(result);
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                done.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+                done.complete(null);
+            }
+        };
+    }
+
+    private void recordOperation(FileOperationResult result) {
+        String name = "op:" + result.getOperation();
+        if (result.getStatus() == OperationStatus.FAILED) {
+            report.recordError(name);
+            return;
+        }
+        if (result.getStatus() == OperationStatus.SUCCESS) {
+            report.record(name, nanosBetween(result.getStartTime(), result.getEndTime()));
+        }
+    }
+
+    private static long nanosBetween(Timestamp start, Timestamp end) {
+        return TimeUnit.SECONDS.toNanos(end.getSeconds() - start.getSeconds()) + (end.getNanos() - start.getNanos());
+    }
+
+    /**
+     * @return the payload with file IDs unique to the given request
+     */
+    private List<File> filesFor(long sequence) {
+        List<File> files = new ArrayList<>(payload.size());
+        for (int i = 0; i < payload.size(); i++) {
+            files.add(payload.get(i).toBuilder().setFileId("load-" + sequence + "-" + i).build());
+        }
+        return files;
+    }
+
+    /**
+     * Encodes the images sent with every request once, with distinct content per file.
+     */
+    private static List<File> createPayload(LoadGeneratorOptions options) {
+        List<File> files = new ArrayList<>();
+        int side = options.imageSize();
+        for (int i = 0; i < options.filesPerRequest(); i++) {
+            BufferedImage image = new BufferedImage(side, side, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = image.createGraphics();
+            try {
+                g.setPaint(new GradientPaint(0, 0, Color.getHSBColor(i / 8f, 0.8f, 0.9f), side, side, Color.DARK_GRAY));
+                g.fillRect(0, 0, side, side);
+                g.setColor(Color.WHITE);
+                for (int x = 0; x < side; x += Math.max(1, side / 16)) {
+                    g.drawOval(x / 2, (x + i * 7) % side, side / 4, side / 5);
+                }
+            } finally {
+                g.dispose();
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try {
+                if (!ImageIO.write(image, options.imageFormat(), out)) {
+                    throw new IllegalArgumentException("Unsupported image format: " + options.imageFormat());
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to encode payload image", e);
+            }
+            files.add(File.newBuilder()
+                    .setFileName("load_" + i + "." + options.imageFormat())
+                    .setFileType(options.imageFormat())
+                    .setContent(ByteString.copyFrom(out.toByteArray()))
+                    .setSizeBytes(out.size())
+                    .build());
+        }
+        return files;
+    }
+}
@@ -0,0 +1,125 @@
+package client;
+
+import com.fileprocessing.FileSpec.OperationType;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Command line options of {@link LoadGeneratorClient}, given as {@code --name=value}.
+ *
+ * @param host            server host
+ * @param port            server port
+ * @param channels        number of channels (HTTP/2 connections) requests are spread over
+ * @param rpcs            RPCs to drive, used in turn
+ * @param concurrency     maximum number of requests in flight
+ * @param rate            target requests per second; 0 runs closed-loop at {@code concurrency}
+ * @param warmupSeconds   seconds of load before recording starts
+ * @param durationSeconds seconds of recorded load
+ * @param timeoutSeconds  deadline of every request, after which it fails with DEADLINE_EXCEEDED
+ * @param filesPerRequest files sent in each request
+ * @param imageSize       width and height of the generated images, in pixels
+ * @param imageFormat     format of the generated images, e.g. png or jpg
+ * @param operations      operations requested for every file
+ */
+record LoadGeneratorOptions(
+        String host,
+        int port,
+        int channels,
+        List<Rpc> rpcs,
+        int concurrency,
+        double rate,
+        int warmupSeconds,
+        int durationSeconds,
+        int timeoutSeconds,
+        int filesPerRequest,
+        int imageSize,
+        String imageFormat,
+        List<OperationType> operations
+) {
+
+    /** The RPCs the load generator can drive. */
+    enum Rpc {
+        PROCESS_FILE,
+        STREAM_FILE_OPERATIONS,
+        UPLOAD_FILES,
+        LIVE_FILE_PROCESSING
+    }
+
+    static final String USAGE = """
+            Usage: LoadGeneratorClient [--name=value ...]
+              --host=localhost          server host
+              --port=9090               server port
+              --channels=4              channels to spread requests over
+              --rpcs=all                comma separated: process,stream,upload,live or all
+              --concurrency=64          maximum requests in flight
+              --rate=0                  requests per second (open loop); 0 = closed loop
+              --warmup=10               warmup seconds, not recorded
+              --duration=30             recorded seconds
+              --timeout=30              deadline of each request in seconds
+              --files=4                 files per request
+              --image-size=1024         image width and height in pixels
+              --image-format=png        png or jpg
+              --operations=VALIDATE,METADATA_EXTRACTION,IMAGE_RESIZE
+            """;
+
+    static LoadGeneratorOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        LoadGeneratorOptions options = new LoadGeneratorOptions(
+                values.getOrDefault("host", "localhost"),
+                Integer.parseInt(values.getOrDefault("port", "9090")),
+                Integer.parseInt(values.getOrDefault("channels", "4")),
+                parseRpcs(values.getOrDefault("rpcs", "all")),
+                Integer.parseInt(values.getOrDefault("concurrency", "64")),
+                Double.parseDouble(values.getOrDefault("rate", "0")),
+                Integer.parseInt(values.getOrDefault("warmup", "10")),
+                Integer.parseInt(values.getOrDefault("duration", "30")),
+                Integer.parseInt(values.getOrDefault("timeout", "30")),
+                Integer.parseInt(values.getOrDefault("files", "4")),
+                Integer.parseInt(values.getOrDefault("image-size", "1024")),
+                values.getOrDefault("image-format", "png").toLowerCase(Locale.ROOT),
+                Arrays.stream(values.getOrDefault("operations", "VALIDATE,METADATA_EXTRACTION,IMAGE_RESIZE")
+                                .split(","))
+                        .map(String::trim)
+                        .map(OperationType::valueOf)
+                        .toList()
+        );
+        values.keySet().removeAll(List.of("host", "port", "channels", "rpcs", "concurrency", "rate", "warmup",
+                "duration", "timeout", "files", "image-size", "image-format", "operations"));
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        if (options.channels() <= 0 || options.concurrency() <= 0 || options.filesPerRequest() <= 0
+                || options.durationSeconds() <= 0 || options.timeoutSeconds() <= 0 || options.rate() < 0 || options.warmupSeconds() < 0) {
+            throw new IllegalArgumentException("channels, concurrency, files, duration and timeout must be positive; rate and warmup must not be negative");
+        }
+        return options;
+    }
+
+    private static List<Rpc> parseRpcs(String value) {
+        if ("all".equalsIgnoreCase(value)) {
+            return List.of(Rpc.values());
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .map(name -> switch (name.toLowerCase(Locale.ROOT)) {
+                    case "process" -> Rpc.PROCESS_FILE;
+                    case "stream" -> Rpc.STREAM_FILE_OPERATIONS;
+                    case "upload" -> Rpc.UPLOAD_FILES;
+                    case "live" -> Rpc.LIVE_FILE_PROCESSING;
+                    default -> throw new IllegalArgumentException("Unknown RPC: " + name);
+                })
+                .toList();
+    }
+}
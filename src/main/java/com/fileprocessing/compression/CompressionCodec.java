@@ -0,0 +1,68 @@
+package com.fileprocessing.compression;
+
+import com.fileprocessing.model.FileModel;
+import com.fileprocessing.model.FileOperation;
+import com.google.protobuf.ByteString;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Compression format available to FILE_COMPRESSION.
+ * <p>
+ *  Implementations are Spring beans collected by {@link CompressionCodecs}; adding a codec only takes
+ *  another {@code @Component} implementing this interface. A request selects one by {@link #name()}
+ *  through the {@code codec} parameter of the operation.
+ * </p>
+ * <p>Implementations must be thread-safe: one instance compresses many files concurrently.</p>
+ */
+public interface CompressionCodec {
+
+    /**
+     * @return the name a request selects the codec by, such as {@code "gzip"}
+     */
+    String name();
+
+    /**
+     * @return the suffix appended to the names of the files the codec writes, such as {@code ".gz"}
+     */
+    String extension();
+
+    /**
+     * @return true if the codec honours the level passed to {@link #compress}
+     */
+    default boolean supportsLevels() {
+        return true;
+    }
+
+    /**
+     * Returns the codec to compress the given file with. Codecs whose settings depend on the file or on the
+     * operation's parameters, such as the dictionary to use, return a codec bound to those settings.
+     *
+     * @param file      the file about to be compressed
+     * @param operation the FILE_COMPRESSION operation
+     * @return the codec to use for this file, this codec by default
+     */
+    default CompressionCodec bind(FileModel file, FileOperation operation) {
+        return this;
+    }
+
+    /**
+     * Compresses the content to the given stream, which is left open.
+     *
+     * @param content the content to compress
+     * @param level   deflate-scale level, 0 (store only) to 9 (smallest) or -1 for the codec default;
+     *                ignored by codecs that do not {@linkplain #supportsLevels() support levels}
+     * @param out     the stream receiving the compressed content
+     * @throws IOException if writing to the stream fails
+     */
+    void compress(@NotNull ByteString content, int level, @NotNull OutputStream out) throws IOException;
+
+    /**
+     * @return the settings used at the given level, as reported in operation results
+     */
+    default String describe(int level) {
+        return supportsLevels() ? "codec=" + name() + " level=" + level : "codec=" + name();
+    }
+}
@@ -0,0 +1,116 @@
+package com.fileprocessing.compression;
+
+import com.fileprocessing.config.CompressionProperties;
+import com.fileprocessing.model.FileModel;
+import com.fileprocessing.model.FileOperation;
+import com.fileprocessing.util.CompressibilityProbe;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Registry of the available {@link CompressionCodec}s, choosing the codec and level of each FILE_COMPRESSION.
+ * <p>
+ *  Operation parameters take precedence over configuration:
+ *  <ul>
+ *      <li>{@code codec}: name of the codec, {@code fileprocessing.compression.codec} by default;</li>
+ *      <li>{@code level}: deflate-scale level from -1 to 9. Without it the level comes from
+ *          {@link CompressibilityProbe} when adaptive, from {@code fileprocessing.compression.level} otherwise.</li>
+ *  </ul>
+ * </p>
+ */
+@Slf4j
+@Component
+public class CompressionCodecs {
+
+    public static final String CODEC_PARAMETER = "codec";
+    public static final String LEVEL_PARAMETER = "level";
+
+    private final Map<String, CompressionCodec> codecs;
+    private final CompressionProperties properties;
+
+    public CompressionCodecs(List<CompressionCodec> codecs, CompressionProperties properties) {
+        this.codecs = codecs.stream().collect(Collectors.toMap(
+                CompressionCodec::name, Function.identity(),
+                (a, b) -> {
+                    throw new IllegalStateException("Duplicate compression codec: " + a.name());
+                },
+                TreeMap::new));
+        this.properties = properties;
+        log.info("Compression codecs: {} (default {})", this.codecs.keySet(), properties.getCodec());
+    }
+
+    /**
+     * Returns the codec with the given name.
+     *
+     * @throws IllegalArgumentException if no such codec is registered
+     */
+    public CompressionCodec forName(String name) {
+        CompressionCodec codec = codecs.get(name);
+        if (codec == null) {
+            throw new IllegalArgumentException("Unknown compression codec: " + name + ", available: " + codecs.keySet());
+        }
+        return codec;
+    }
+
+    /**
+     * Chooses the codec and level for compressing a file.
+     *
+     * @param operation the FILE_COMPRESSION operation, whose parameters may select the codec and level
+     * @param input     the file to compress, probed when the level is chosen adaptively
+     * @return the selection
+     * @throws IllegalArgumentException if a parameter names an unknown codec or an invalid level
+     */
+    public Selection select(FileOperation operation, FileModel input) {
+        Object codecName = operation.getParameter(CODEC_PARAMETER);
+        CompressionCodec codec = forName(codecName != null ? codecName.toString() : properties.getCodec())
+                .bind(input, operation);
+
+        Object level = operation.getParameter(LEVEL_PARAMETER);
+        if (level != null) {
+            return new Selection(codec, parseLevel(level), null);
+        }
+        if (properties.isAdaptive() && codec.supportsLevels()) {
+            CompressibilityProbe.Estimate estimate = CompressibilityProbe.estimate(input.data());
+            log.debug("Compressibility of {}: {}", input.fileName(), estimate.describe());
+            return new Selection(codec, estimate.mode().level(), estimate);
+        }
+        return new Selection(codec, properties.getLevel(), null);
+    }
+
+    private static int parseLevel(Object value) {
+        int level;
+        try {
+            level = value instanceof Number number ? number.intValue() : Integer.parseInt(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Compression level must be an integer: " + value);
+        }
+        if (level < -1 || level > 9) {
+            throw new IllegalArgumentException("Compression level must be between -1 and 9: " + level);
+        }
+        return level;
+    }
+
+    /**
+     * Codec and level chosen for a file.
+     *
+     * @param codec    the codec to compress with
+     * @param level    the level to pass to the codec
+     * @param estimate the compressibility estimate the level was chosen from, or null if it was not probed
+     */
+    public record Selection(CompressionCodec codec, int level, CompressibilityProbe.Estimate estimate) {
+
+        /**
+         * @return the chosen settings, for operation results
+         */
+        public String describe() {
+            String settings = codec.describe(level);
+            return estimate == null ? settings : settings + " " + estimate.describe();
+        }
+    }
+}
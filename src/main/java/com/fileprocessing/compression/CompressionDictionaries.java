@@ -0,0 +1,216 @@
+package com.fileprocessing.compression;
+
+import com.fileprocessing.concurrency.OperationClass;
+import com.fileprocessing.concurrency.ThreadPoolManager;
+import com.fileprocessing.config.CompressionProperties;
+import com.fileprocessing.model.FileModel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Trains and versions the preset dictionaries of the {@code dictionary} codec.
+ * <p>
+ *  Small files are sampled per tenant and file type. Once enough samples are collected, and again after
+ *  every {@code retrainEvery} new ones, a new dictionary version is trained from the most recent samples
+ *  on the CPU pool, saved under {@code <directory>/<tenant>/<fileType>/v<version>-<dictId>.dict} and used
+ *  for the files compressed from then on. Earlier versions stay on disk, so every output can still be
+ *  inflated with the dictionary its header refers to. The latest saved version is picked up after a restart.
+ * </p>
+ * <p>
+ *  Tenants are supplied by clients, so at most {@code maxCorpora} tenant and file type pairs are kept in
+ *  memory, evicting the least recently used with its samples; its saved versions are loaded again when it
+ *  returns. When {@code tenants} is set, other tenants are neither sampled nor given a dictionary.
+ * </p>
+ * <p>Thread-safe: samples of one tenant and file type are collected under that corpus' lock.</p>
+ */
+@Slf4j
+@Component
+public class CompressionDictionaries {
+
+    private static final Pattern SAFE_NAME = Pattern.compile("[A-Za-z0-9_-]+");
+    private static final Pattern VERSION_FILE = Pattern.compile("v(\\d+)-[0-9a-f]{8}\\.dict");
+
+    private final CompressionProperties.Dictionary properties;
+    private final Executor trainingExecutor;
+    private final Map<String, Corpus> corpora;
+
+    @Autowired
+    public CompressionDictionaries(CompressionProperties properties, ThreadPoolManager threadPoolManager) {
+        this(properties.getDictionary(), threadPoolManager.getExecutor(OperationClass.CPU));
+    }
+
+    CompressionDictionaries(CompressionProperties.Dictionary properties, Executor trainingExecutor) {
+        this.properties = properties;
+        this.trainingExecutor = trainingExecutor;
+        this.corpora = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Corpus> eldest) {
+                return size() > properties.getMaxCorpora();
+            }
+        };
+    }
+
+    /**
+     * @return the latest dictionary of the tenant and file type, if one has been trained
+     */
+    public Optional<TrainedDictionary> current(String tenant, String fileType) {
+        if (!isAllowed(tenant)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(corpusOf(tenant, fileType).current);
+    }
+
+    /**
+     * Adds the file to the training samples of its tenant and file type, training a new dictionary version
+     * in the background when due. Files larger than {@code maxSampleBytes} and files of tenants outside
+     * {@code tenants} are ignored.
+     */
+    public void sample(String tenant, FileModel file) {
+        int size = file.data().size();
+        if (!isAllowed(tenant) || size == 0 || size > properties.getMaxSampleBytes()) {
+            return;
+        }
+        Corpus corpus = corpusOf(tenant, file.fileType());
+        List<byte[]> snapshot = corpus.add(file.data().toByteArray());
+        if (snapshot != null) {
+            trainingExecutor.execute(() -> corpus.train(snapshot));
+        }
+    }
+
+    /**
+     * @return the number of tenant and file type pairs currently kept in memory
+     */
+    int corpusCount() {
+        synchronized (corpora) {
+            return corpora.size();
+        }
+    }
+
+    private boolean isAllowed(String tenant) {
+        String safeTenant = requireSafe(tenant, "tenant");
+        return properties.getTenants().isEmpty() || properties.getTenants().contains(safeTenant);
+    }
+
+    private Corpus corpusOf(String tenant, String fileType) {
+        String safeTenant = requireSafe(tenant, "tenant");
+        String safeType = requireSafe(fileType.toLowerCase(), "file type");
+        synchronized (corpora) {
+            return corpora.computeIfAbsent(safeTenant + "/" + safeType, key -> new Corpus(safeTenant, safeType));
+        }
+    }
+
+    private static String requireSafe(String name, String what) {
+        if (name == null || !SAFE_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid " + what + " for dictionary compression: " + name);
+        }
+        return name;
+    }
+
+    /**
+     * Samples and dictionary versions of one tenant and file type.
+     */
+    private final class Corpus {
+        private final String tenant;
+        private final String fileType;
+        private final Path directory;
+        private final Deque<byte[]> samples = new ArrayDeque<>();
+        private final AtomicBoolean training = new AtomicBoolean(false);
+        private int sinceTraining;
+        private volatile TrainedDictionary current;
+
+        Corpus(String tenant, String fileType) {
+            this.tenant = tenant;
+            this.fileType = fileType;
+            this.directory = Path.of(properties.getDirectory()).resolve(tenant).resolve(fileType);
+            this.current = loadLatest();
+        }
+
+        /**
+         * @return the samples to train from if a new version is due, null otherwise
+         */
+        synchronized List<byte[]> add(byte[] sample) {
+            samples.addLast(sample);
+            while (samples.size() > properties.getSamples()) {
+                samples.removeFirst();
+            }
+            sinceTraining++;
+            boolean due = current == null
+                    ? samples.size() >= properties.getMinSamples()
+                    : sinceTraining >= properties.getRetrainEvery();
+            if (!due || !training.compareAndSet(false, true)) {
+                return null;
+            }
+            sinceTraining = 0;
+            return new ArrayList<>(samples);
+        }
+
+        void train(List<byte[]> snapshot) {
+            try {
+                long start = System.currentTimeMillis();
+                byte[] bytes = DictionaryTrainer.train(snapshot, properties.getSizeBytes());
+                if (bytes.length == 0) {
+                    log.info("No shared content in {} samples of {}/{}, no dictionary trained",
+                            snapshot.size(), tenant, fileType);
+                    return;
+                }
+                int version = current == null ? 1 : current.version() + 1;
+                TrainedDictionary dictionary = new TrainedDictionary(tenant, fileType, version, bytes);
+                Files.createDirectories(directory);
+                Files.write(directory.resolve(dictionary.fileName()), bytes);
+                current = dictionary;
+                log.info("Trained dictionary {} ({} bytes, dictId {}) from {} samples in {} ms",
+                        dictionary.id(), bytes.length, dictionary.dictId(), snapshot.size(),
+                        System.currentTimeMillis() - start);
+            } catch (IOException | RuntimeException e) {
+                // Without a saved copy its output could not be inflated, so keep using the previous version
+                log.error("Failed to train dictionary for {}/{}", tenant, fileType, e);
+            } finally {
+                training.set(false);
+            }
+        }
+
+        private TrainedDictionary loadLatest() {
+            if (!Files.isDirectory(directory)) {
+                return null;
+            }
+            try (Stream<Path> files = Files.list(directory)) {
+                Optional<Path> latest = files
+                        .filter(file -> VERSION_FILE.matcher(file.getFileName().toString()).matches())
+                        .max(Comparator.comparingInt(CompressionDictionaries::versionOf));
+                if (latest.isEmpty()) {
+                    return null;
+                }
+                TrainedDictionary dictionary = new TrainedDictionary(tenant, fileType,
+                        versionOf(latest.get()), Files.readAllBytes(latest.get()));
+                log.info("Loaded dictionary {} from {}", dictionary.id(), latest.get());
+                return dictionary;
+            } catch (IOException e) {
+                log.warn("Failed to load dictionaries from {}, training from scratch", directory, e);
+                return null;
+            }
+        }
+    }
+
+    private static int versionOf(Path file) {
+        Matcher matcher = VERSION_FILE.matcher(file.getFileName().toString());
+        return matcher.matches() ? Integer.parseInt(matcher.group(1)) : 0;
+    }
+}
@@ -0,0 +1,107 @@
+package com.fileprocessing.compression;
+
+import com.fileprocessing.config.CompressionProperties;
+import com.google.protobuf.ByteString;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.Adler32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Raw deflate (RFC 1951) without any container, optionally primed with a preset dictionary.
+ * <p>
+ *  A dictionary of content typical for the files being compressed lets even the first bytes of a small
+ *  file refer back to earlier matches, which is where plain gzip gains almost nothing. Readers need the
+ *  same dictionary to inflate the output; it is identified by its Adler-32 checksum, as zlib does, and
+ *  that id is reported with every result.
+ * </p>
+ */
+@Slf4j
+@Component
+public class DeflateCodec implements CompressionCodec {
+
+    public static final String NAME = "deflate";
+    /** Deflate can only refer back 32 KiB, so longer dictionaries are trimmed to their tail. */
+    static final int MAX_DICTIONARY_SIZE = 32 * 1024;
+
+    private final byte[] dictionary;
+    private final String dictionaryId;
+
+    @Autowired
+    public DeflateCodec(CompressionProperties properties) {
+        this(loadDictionary(properties.getDeflateDictionary()));
+    }
+
+    /**
+     * @param dictionary the preset dictionary, or an empty array for none
+     */
+    DeflateCodec(byte[] dictionary) {
+        this.dictionary = dictionary.length > MAX_DICTIONARY_SIZE
+                ? Arrays.copyOfRange(dictionary, dictionary.length - MAX_DICTIONARY_SIZE, dictionary.length)
+                : dictionary.clone();
+        this.dictionaryId = this.dictionary.length == 0 ? null : idOf(this.dictionary);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public String extension() {
+        return ".deflate";
+    }
+
+    @Override
+    public void compress(@NotNull ByteString content, int level, @NotNull OutputStream out) throws IOException {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            if (dictionary.length > 0) {
+                deflater.setDictionary(dictionary);
+            }
+            DeflaterOutputStream deflated = new DeflaterOutputStream(out, deflater, 64 * 1024);
+            content.writeTo(deflated);
+            deflated.finish();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public String describe(int level) {
+        String settings = CompressionCodec.super.describe(level);
+        return dictionaryId == null ? settings : settings + " dictionary=" + dictionaryId;
+    }
+
+    /**
+     * @return the Adler-32 checksum of the dictionary as 8 hex digits
+     */
+    static String idOf(byte[] dictionary) {
+        Adler32 adler = new Adler32();
+        adler.update(dictionary);
+        return String.format("%08x", adler.getValue());
+    }
+
+    private static byte[] loadDictionary(String path) {
+        if (path == null || path.isBlank()) {
+            return new byte[0];
+        }
+        try {
+            byte[] dictionary = Files.readAllBytes(Path.of(path));
+            log.info("Loaded {} byte deflate dictionary from {}", dictionary.length, path);
+            return dictionary;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read deflate dictionary " + path, e);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.fileprocessing.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Builds a deflate preset dictionary from sample files, in the spirit of zstd's COVER algorithm.
+ * <p>
+ *  Every sample is cut into segments of {@value #SEGMENT} bytes, scored by how many other samples
+ *  contain their {@value #K}-byte substrings. Segments are picked greedily by score; once picked, their
+ *  substrings no longer count, so the dictionary covers as much distinct shared content as possible rather
+ *  than repeating the most common fragment. The best segments are placed last, where matches against them
+ *  have the shortest distances.
+ * </p>
+ */
+final class DictionaryTrainer {
+
+    /** Length of the substrings scored across samples; 8 bytes fit a long exactly. */
+    static final int K = 8;
+    static final int SEGMENT = 64;
+
+    private DictionaryTrainer() {
+        // prevent instantiation
+    }
+
+    private record Segment(byte[] sample, int start, int end, long score) {
+    }
+
+    /**
+     * @param samples the sample contents
+     * @param size    maximum dictionary size in bytes
+     * @return the dictionary, empty if the samples share no content
+     */
+    static byte[] train(List<byte[]> samples, int size) {
+        Map<Long, Integer> frequencies = documentFrequencies(samples);
+
+        PriorityQueue<Segment> candidates = new PriorityQueue<>((a, b) -> Long.compare(b.score(), a.score()));
+        for (byte[] sample : samples) {
+            for (int start = 0; start + K <= sample.length; start += SEGMENT) {
+                int end = Math.min(sample.length, start + SEGMENT);
+                long score = score(sample, start, end, frequencies);
+                if (score > 0) {
+                    candidates.add(new Segment(sample, start, end, score));
+                }
+            }
+        }
+
+        List<Segment> picked = new ArrayList<>();
+        int total = 0;
+        while (!candidates.isEmpty() && total < size) {
+            Segment best = candidates.poll();
+            // Scores only drop as substrings are covered; re-queue if a fresher score ranks it lower
+            long current = score(best.sample(), best.start(), best.end(), frequencies);
+            if (current <= 0) {
+                continue;
+            }
+            if (current < best.score()) {
+                candidates.add(new Segment(best.sample(), best.start(), best.end(), current));
+                continue;
+            }
+            picked.add(best);
+            total += best.end() - best.start();
+            for (int i = best.start(); i + K <= best.end(); i++) {
+                frequencies.remove(gramAt(best.sample(), i));
+            }
+        }
+
+        Collections.reverse(picked);
+        ByteArrayOutputStream dictionary = new ByteArrayOutputStream(total);
+        for (Segment segment : picked) {
+            dictionary.write(segment.sample(), segment.start(), segment.end() - segment.start());
+        }
+        byte[] bytes = dictionary.toByteArray();
+        return bytes.length > size ? Arrays.copyOfRange(bytes, bytes.length - size, bytes.length) : bytes;
+    }
+
+    /**
+     * @return for each substring, the number of samples containing it, for substrings found in at least two
+     */
+    private static Map<Long, Integer> documentFrequencies(List<byte[]> samples) {
+        Map<Long, Integer> frequencies = new HashMap<>();
+        for (byte[] sample : samples) {
+            Set<Long> grams = new HashSet<>();
+            for (int i = 0; i + K <= sample.length; i++) {
+                grams.add(gramAt(sample, i));
+            }
+            grams.forEach(gram -> frequencies.merge(gram, 1, Integer::sum));
+        }
+        frequencies.values().removeIf(count -> count < 2);
+        return frequencies;
+    }
+
+    private static long score(byte[] sample, int start, int end, Map<Long, Integer> frequencies) {
+        long score = 0;
+        for (int i = start; i + K <= end; i++) {
+            score += frequencies.getOrDefault(gramAt(sample, i), 0);
+        }
+        return score;
+    }
+
+    private static long gramAt(byte[] sample, int offset) {
+        return ByteBuffer.wrap(sample, offset, K).getLong();
+    }
+}
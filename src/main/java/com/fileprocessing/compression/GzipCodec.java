@@ -0,0 +1,58 @@
+package com.fileprocessing.compression;
+
+import com.fileprocessing.concurrency.OperationClass;
+import com.fileprocessing.concurrency.ThreadPoolManager;
+import com.fileprocessing.config.CompressionProperties;
+import com.fileprocessing.util.ParallelGzipCompressor;
+import com.google.protobuf.ByteString;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * GZIP, readable by any gunzip. Files larger than one block are deflated in parallel on the CPU pool
+ * and written as consecutive gzip members; see {@link ParallelGzipCompressor}.
+ */
+@Component
+public class GzipCodec implements CompressionCodec {
+
+    public static final String NAME = "gzip";
+
+    private final ParallelGzipCompressor compressor;
+
+    @Autowired
+    public GzipCodec(CompressionProperties properties, ThreadPoolManager threadPoolManager) {
+        this(new ParallelGzipCompressor(
+                properties.getLevel(),
+                properties.getBlockSizeKb() * 1024,
+                threadPoolManager.getExecutor(OperationClass.CPU),
+                properties.getParallelism() > 0
+                        ? properties.getParallelism()
+                        : Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * @param compressor the compressor to use, e.g. {@link ParallelGzipCompressor#sequential()}
+     */
+    public GzipCodec(@NotNull ParallelGzipCompressor compressor) {
+        this.compressor = compressor;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public String extension() {
+        return ".gz";
+    }
+
+    @Override
+    public void compress(@NotNull ByteString content, int level, @NotNull OutputStream out) throws IOException {
+        compressor.withLevel(level).compress(content, out);
+    }
+}
@@ -0,0 +1,53 @@
+package com.fileprocessing.compression;
+
+import com.google.protobuf.ByteString;
+import org.iq80.snappy.SnappyFramedOutputStream;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Snappy, an LZ77-family codec trading ratio for speed, in the standard framing format ({@code .sz}).
+ * Has no levels; blocks that do not compress are stored as they are.
+ */
+@Component
+public class SnappyCodec implements CompressionCodec {
+
+    public static final String NAME = "snappy";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public String extension() {
+        return ".sz";
+    }
+
+    @Override
+    public boolean supportsLevels() {
+        return false;
+    }
+
+    @Override
+    public void compress(@NotNull ByteString content, int level, @NotNull OutputStream out) throws IOException {
+        // Closing the framed stream writes its last block; the shield keeps the caller's stream open
+        try (OutputStream framed = new SnappyFramedOutputStream(new FilterOutputStream(out) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        })) {
+            content.writeTo(framed);
+        }
+    }
+}
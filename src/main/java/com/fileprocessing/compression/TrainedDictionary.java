@@ -0,0 +1,34 @@
+package com.fileprocessing.compression;
+
+/**
+ * Version of a preset dictionary trained for one tenant and file type.
+ *
+ * @param tenant   the tenant the samples came from
+ * @param fileType the file type of the samples
+ * @param version  version number, starting at 1 and increasing with each retraining
+ * @param bytes    the dictionary content
+ */
+public record TrainedDictionary(String tenant, String fileType, int version, byte[] bytes) {
+
+    /**
+     * @return the versioned name of the dictionary, such as {@code acme/json/v3}
+     */
+    public String id() {
+        return tenant + "/" + fileType + "/v" + version;
+    }
+
+    /**
+     * @return the Adler-32 checksum of the content as 8 hex digits, which zlib writes in the header of
+     * every stream compressed with this dictionary
+     */
+    public String dictId() {
+        return DeflateCodec.idOf(bytes);
+    }
+
+    /**
+     * @return the name of the file the dictionary is saved to
+     */
+    String fileName() {
+        return "v" + version + "-" + dictId() + ".dict";
+    }
+}
@@ -0,0 +1,237 @@
+package com.fileprocessing.concurrency;
+
+import com.fileprocessing.FileSpec.OperationType;
+import com.fileprocessing.model.FileModel;
+import com.fileprocessing.model.FileOperation;
+import com.fileprocessing.model.concurrency.FileTask;
+import com.fileprocessing.util.DecodedImageContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dependency-aware execution plan for the operations requested on a single file.
+ * <p>
+ *  Dependencies between the requested operations:
+ *  <ul>
+ *      <li>VALIDATE gates every other operation on the file.</li>
+ *      <li>FORMAT_CONVERSION waits for IMAGE_RESIZE and converts its output.</li>
+ *      <li>STORAGE waits for both transforms and persists the final artifact.</li>
+ *      <li>Transforms are only chained for images. On other files they cannot apply, so they run (and fail)
+ *          on their own and STORAGE persists the original file, as if no transform had been requested.</li>
+ *      <li>When fused, STORAGE of an untransformed file also waits for FILE_COMPRESSION, which writes its
+ *          output straight into storage; STORAGE then reports that artifact instead of writing again. This
+ *          dependency does not gate STORAGE: if compression fails, STORAGE stores the original file.</li>
+ *      <li>Everything else only waits for VALIDATE and runs in parallel with its siblings.</li>
+ *  </ul>
+ * </p>
+ * <p>
+ *  Each task reads either the original file or the artifact produced by the transform it consumes.
+ *  Every input has one {@link DecodedImageContext} shared by all of its readers, which is released
+ *  once the last of them has finished.
+ * </p>
+ * <p>Thread-safe once built; artifacts may be recorded from any pool thread.</p>
+ */
+public final class FileOperationPlan {
+
+    private final FileModel file;
+    private final List<FileTask> tasks;
+    private final Map<FileTask, List<FileTask>> dependencies;
+    /** Task -> producer of its input; tasks absent from this map read the original file. */
+    private final Map<FileTask, FileTask> producers;
+    private final Map<FileTask, Integer> consumerCounts;
+    /** FILE_COMPRESSION task writing straight into storage, or null when storage is not fused. */
+    private final FileTask fusedCompression;
+    private final DecodedImageContext originalImages;
+    private final Map<FileTask, Artifact> artifacts = new ConcurrentHashMap<>();
+
+    private record Artifact(FileModel file, DecodedImageContext images) {
+    }
+
+    private FileOperationPlan(FileModel file, List<FileTask> tasks, boolean fuseCompressionWithStorage) {
+        this.file = file;
+        this.tasks = List.copyOf(tasks);
+
+        List<FileTask> validations = tasksOf(OperationType.VALIDATE);
+        // Transforms of non-image files fail as inapplicable; nothing may depend on them
+        List<FileTask> resizes = file.isImage() ? tasksOf(OperationType.IMAGE_RESIZE) : List.of();
+        List<FileTask> conversions = file.isImage() ? tasksOf(OperationType.FORMAT_CONVERSION) : List.of();
+        List<FileTask> compressions = tasksOf(OperationType.FILE_COMPRESSION);
+        boolean fused = fuseCompressionWithStorage && resizes.isEmpty() && conversions.isEmpty()
+                && !compressions.isEmpty() && !tasksOf(OperationType.STORAGE).isEmpty();
+        this.fusedCompression = fused ? lastOf(compressions).orElseThrow() : null;
+
+        Map<FileTask, List<FileTask>> deps = new HashMap<>();
+        Map<FileTask, FileTask> inputs = new HashMap<>();
+        for (FileTask task : this.tasks) {
+            List<FileTask> taskDeps = new ArrayList<>();
+            switch (task.operation().operationType()) {
+                case VALIDATE -> {
+                }
+                case FORMAT_CONVERSION -> {
+                    taskDeps.addAll(validations);
+                    taskDeps.addAll(resizes);
+                    lastOf(resizes).ifPresent(producer -> inputs.put(task, producer));
+                }
+                case STORAGE -> {
+                    taskDeps.addAll(validations);
+                    taskDeps.addAll(resizes);
+                    taskDeps.addAll(conversions);
+                    if (fused) {
+                        taskDeps.add(fusedCompression);
+                    }
+                    lastOf(conversions).or(() -> lastOf(resizes))
+                            .ifPresent(producer -> inputs.put(task, producer));
+                }
+                default -> taskDeps.addAll(validations);
+            }
+            taskDeps.remove(task);
+            deps.put(task, List.copyOf(taskDeps));
+        }
+        this.dependencies = Collections.unmodifiableMap(deps);
+        this.producers = Collections.unmodifiableMap(inputs);
+
+        Map<FileTask, Integer> counts = new HashMap<>();
+        producers.values().forEach(producer -> counts.merge(producer, 1, Integer::sum));
+        this.consumerCounts = Collections.unmodifiableMap(counts);
+
+        int originalReaders = this.tasks.size() - producers.size();
+        this.originalImages = originalReaders > 0 ? new DecodedImageContext(file, originalReaders) : null;
+    }
+
+    /**
+     * Builds the plan for the given operations on a file.
+     *
+     * @param file       the file to process; must not be null
+     * @param operations the operations requested on the file, in request order
+     * @return the plan, with one task per operation
+     */
+    public static FileOperationPlan of(FileModel file, List<FileOperation> operations) {
+        return of(file, operations, false);
+    }
+
+    /**
+     * Builds the plan for the given operations on a file.
+     *
+     * @param file                       the file to process; must not be null
+     * @param operations                 the operations requested on the file, in request order
+     * @param fuseCompressionWithStorage whether FILE_COMPRESSION should write straight into storage when the
+     *                                   file is also stored untransformed
+     * @return the plan, with one task per operation
+     */
+    public static FileOperationPlan of(FileModel file, List<FileOperation> operations,
+                                       boolean fuseCompressionWithStorage) {
+        Objects.requireNonNull(file, "file cannot be null");
+        Objects.requireNonNull(operations, "operations cannot be null");
+        return new FileOperationPlan(file, operations.stream().map(op -> new FileTask(file, op)).toList(),
+                fuseCompressionWithStorage);
+    }
+
+    /** @return the original file this plan processes */
+    public FileModel file() {
+        return file;
+    }
+
+    /** @return all tasks of the plan, in request order */
+    public List<FileTask> tasks() {
+        return tasks;
+    }
+
+    /** @return the tasks that must complete before the given task may start */
+    public List<FileTask> dependenciesOf(FileTask task) {
+        return dependencies.getOrDefault(task, List.of());
+    }
+
+    /**
+     * @return the dependencies that must also succeed for the given task to run; the task is skipped otherwise
+     */
+    public List<FileTask> requiredDependenciesOf(FileTask task) {
+        Optional<FileTask> fused = fusedCompressionOf(task);
+        List<FileTask> dependencies = dependenciesOf(task);
+        return fused.isEmpty() ? dependencies : dependencies.stream().filter(dep -> dep != fused.get()).toList();
+    }
+
+    /**
+     * @return true if the given task is the FILE_COMPRESSION task whose output is written straight into storage
+     */
+    public boolean storesOutput(FileTask task) {
+        return task == fusedCompression;
+    }
+
+    /**
+     * @return the FILE_COMPRESSION task that already stored the artifact of the given STORAGE task, if fused
+     */
+    public Optional<FileTask> fusedCompressionOf(FileTask task) {
+        return task.operation().operationType() == OperationType.STORAGE
+                ? Optional.ofNullable(fusedCompression)
+                : Optional.empty();
+    }
+
+    /**
+     * Returns the file the given task operates on: the artifact of the transform it consumes, or the original file.
+     *
+     * @throws IllegalStateException if the transform it consumes did not produce an artifact
+     */
+    public FileModel inputOf(FileTask task) {
+        FileTask producer = producers.get(task);
+        return producer == null ? file : artifactOf(producer).file();
+    }
+
+    /**
+     * Returns the decoded image context shared by all readers of the given task's input.
+     *
+     * @throws IllegalStateException if the transform it consumes did not produce an artifact
+     */
+    public DecodedImageContext imageContextOf(FileTask task) {
+        FileTask producer = producers.get(task);
+        return producer == null ? originalImages : artifactOf(producer).images();
+    }
+
+    /**
+     * Records the artifact produced by a transform so that the tasks consuming it can read it.
+     */
+    public void recordOutput(FileTask producer, FileModel output) {
+        Integer consumers = consumerCounts.get(producer);
+        if (consumers != null) {
+            artifacts.put(producer, new Artifact(output, new DecodedImageContext(output, consumers)));
+        }
+    }
+
+    /**
+     * Signals that the given task has finished reading its input.
+     */
+    public void release(FileTask task) {
+        FileTask producer = producers.get(task);
+        if (producer == null) {
+            originalImages.release();
+        } else {
+            Artifact artifact = artifacts.get(producer);
+            if (artifact != null) {
+                artifact.images().release();
+            }
+        }
+    }
+
+    private Artifact artifactOf(FileTask producer) {
+        Artifact artifact = artifacts.get(producer);
+        if (artifact == null) {
+            throw new IllegalStateException(producer.operation().operationType()
+                    + " produced no output for file " + file.fileName());
+        }
+        return artifact;
+    }
+
+    private List<FileTask> tasksOf(OperationType type) {
+        return tasks.stream().filter(t -> t.operation().operationType() == type).toList();
+    }
+
+    private static Optional<FileTask> lastOf(List<FileTask> tasks) {
+        return tasks.isEmpty() ? Optional.empty() : Optional.of(tasks.get(tasks.size() - 1));
+    }
+}
@@ -0,0 +1,28 @@
+package com.fileprocessing.concurrency;
+
+import com.fileprocessing.FileSpec.OperationType;
+
+/**
+ * Resource profile of an operation, used to run it on a dedicated pool so that slow operations of
+ * one class cannot starve cheap operations of another.
+ */
+public enum OperationClass {
+
+    /** Image decoding and transforms, bounded by the number of cores. */
+    CPU,
+    /** Disk-bound work such as storage and compression output. */
+    IO,
+    /** Calls into external tools such as OCR, isolated from everything else. */
+    EXTERNAL;
+
+    /**
+     * @return the class of the given operation type
+     */
+    public static OperationClass of(OperationType type) {
+        return switch (type) {
+            case STORAGE, FILE_COMPRESSION -> IO;
+            case OCR_TEXT_EXTRACTION -> EXTERNAL;
+            default -> CPU;
+        };
+    }
+}
@@ -0,0 +1,259 @@
+package com.fileprocessing.concurrency;
+
+import com.fileprocessing.config.ThreadPoolProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor dedicated to one {@link OperationClass}, with its own queue, limits and statistics.
+ * <p>
+ *  Backed by one of:
+ *  <ul>
+ *      <li>a {@link ThreadPoolExecutor} with a bounded queue, {@code CallerRunsPolicy} and adaptive resizing;</li>
+ *      <li>a work-stealing {@link ForkJoinPool}, where a full queue also makes the caller run the task;</li>
+ *      <li>virtual threads, one per task, of which at most {@code maxSize} run at the same time.</li>
+ *  </ul>
+ * </p>
+ */
+@Slf4j
+final class OperationPool {
+
+    private final OperationClass operationClass;
+    private final ThreadPoolProperties.Pool sizing;
+    private final ExecutorService executor;
+    /** Set when backed by a ThreadPoolExecutor, null otherwise. */
+    private final ThreadPoolExecutor threadPool;
+    /** Set when backed by a ForkJoinPool, null otherwise. */
+    private final ForkJoinPool forkJoinPool;
+    /** Set when backed by virtual threads, limits how many tasks run concurrently. */
+    private final Semaphore virtualPermits;
+    private final AtomicInteger virtualWaiting = new AtomicInteger(0);
+
+    private OperationPool(OperationClass operationClass, ThreadPoolProperties.Pool sizing, ExecutorService executor,
+                          ThreadPoolExecutor threadPool, ForkJoinPool forkJoinPool, Semaphore virtualPermits) {
+        this.operationClass = operationClass;
+        this.sizing = sizing;
+        this.executor = executor;
+        this.threadPool = threadPool;
+        this.forkJoinPool = forkJoinPool;
+        this.virtualPermits = virtualPermits;
+    }
+
+    /**
+     * Creates a pool backed by a {@link ThreadPoolExecutor}.
+     */
+    static OperationPool threadPool(OperationClass operationClass, ThreadPoolProperties.Pool sizing) {
+        ThreadPoolExecutor threadPool = new ThreadPoolExecutor(
+                sizing.getCoreSize(),
+                sizing.getMaxSize(),
+                sizing.getKeepAliveSeconds(),
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(sizing.getQueueCapacity()),
+                new NamedThreadFactory(threadPrefix(operationClass, "thread")),
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+        threadPool.allowCoreThreadTimeOut(true);
+        return new OperationPool(operationClass, sizing, threadPool, threadPool, null, null);
+    }
+
+    /**
+     * Creates a pool backed by a work-stealing {@link ForkJoinPool} in async (FIFO) mode.
+     */
+    static OperationPool workStealing(OperationClass operationClass, ThreadPoolProperties.Pool sizing) {
+        ForkJoinPool forkJoinPool = new ForkJoinPool(
+                sizing.getCoreSize(),
+                new WorkStealingThreadFactory(threadPrefix(operationClass, "ws-thread")),
+                (thread, ex) -> log.error("Uncaught exception in {}", thread.getName(), ex),
+                true, // FIFO for submitted tasks, like the shared queue it replaces
+                sizing.getCoreSize(),
+                sizing.getMaxSize(),
+                1,
+                pool -> true, // keep accepting when saturated, the queue bound applies backpressure
+                sizing.getKeepAliveSeconds(),
+                TimeUnit.SECONDS
+        );
+        log.info("[ThreadPoolManager] Using work-stealing {} pool with parallelism {}",
+                operationClass, sizing.getCoreSize());
+        return new OperationPool(operationClass, sizing, forkJoinPool, null, forkJoinPool, null);
+    }
+
+    /**
+     * Creates a pool running each task on its own virtual thread.
+     *
+     * @return the pool, or null if the running JVM does not support virtual threads
+     */
+    static OperationPool virtualThreads(OperationClass operationClass, ThreadPoolProperties.Pool sizing) {
+        ExecutorService virtualExecutor = newVirtualThreadExecutor(threadPrefix(operationClass, "vthread"));
+        if (virtualExecutor == null) {
+            log.warn("[ThreadPoolManager] Virtual threads requested but not supported by Java {}; "
+                    + "{} operations will use a platform pool", Runtime.version().feature(), operationClass);
+            return null;
+        }
+        log.info("[ThreadPoolManager] {} operations will run on virtual threads", operationClass);
+        return new OperationPool(operationClass, sizing, virtualExecutor, null, null,
+                new Semaphore(sizing.getMaxSize()));
+    }
+
+    <T> @NotNull Future<T> submit(Callable<T> task) {
+        if (virtualPermits != null) {
+            return executor.submit(() -> runWithPermit(task));
+        }
+        if (forkJoinPool != null && queueSize() >= sizing.getQueueCapacity()) {
+            // ForkJoinPool queues are unbounded; emulate CallerRunsPolicy so producers are throttled
+            FutureTask<T> inline = new FutureTask<>(task);
+            inline.run();
+            return inline;
+        }
+        return executor.submit(task);
+    }
+
+    private <T> T runWithPermit(Callable<T> task) throws Exception {
+        virtualWaiting.incrementAndGet();
+        try {
+            virtualPermits.acquire();
+        } finally {
+            virtualWaiting.decrementAndGet();
+        }
+        try {
+            return task.call();
+        } finally {
+            virtualPermits.release();
+        }
+    }
+
+    OperationClass operationClass() {
+        return operationClass;
+    }
+
+    ExecutorService executor() {
+        return executor;
+    }
+
+    boolean isWorkStealing() {
+        return forkJoinPool != null;
+    }
+
+    boolean isVirtual() {
+        return virtualPermits != null;
+    }
+
+    /**
+     * @return the number of tasks waiting to run
+     */
+    int queueSize() {
+        if (threadPool != null) {
+            return threadPool.getQueue().size();
+        }
+        if (forkJoinPool != null) {
+            return (int) Math.min(Integer.MAX_VALUE,
+                    forkJoinPool.getQueuedSubmissionCount() + forkJoinPool.getQueuedTaskCount());
+        }
+        return virtualWaiting.get();
+    }
+
+    /**
+     * @return the approximate number of tasks currently running
+     */
+    int activeCount() {
+        if (threadPool != null) {
+            return threadPool.getActiveCount();
+        }
+        if (forkJoinPool != null) {
+            return forkJoinPool.getActiveThreadCount();
+        }
+        return sizing.getMaxSize() - virtualPermits.availablePermits();
+    }
+
+    /**
+     * Adaptive resizing logic based on queue size.
+     * Only applies to ThreadPoolExecutor-backed pools; the other kinds manage their own threads.
+     */
+    void adjustSize() {
+        if (threadPool == null) {
+            return;
+        }
+        int queueSize = threadPool.getQueue().size();
+
+        if (queueSize > sizing.getResizeThreshold() &&
+                threadPool.getMaximumPoolSize() < sizing.getMaxSize()) {
+
+            int newMax = Math.min(sizing.getMaxSize(), threadPool.getMaximumPoolSize() + 2);
+            threadPool.setMaximumPoolSize(newMax);
+            threadPool.setCorePoolSize(newMax / 2);
+            log.info("[ThreadPoolManager] Increased {} pool size to {}", operationClass, newMax);
+
+        } else if (queueSize < sizing.getResizeThreshold() / 2 &&
+                threadPool.getCorePoolSize() > sizing.getCoreSize()) {
+
+            int newCore = Math.max(sizing.getCoreSize(), threadPool.getCorePoolSize() - 1);
+            threadPool.setCorePoolSize(newCore);
+            threadPool.setMaximumPoolSize(newCore * 2);
+            log.info("[ThreadPoolManager] Decreased {} pool size to {}", operationClass, newCore);
+        }
+    }
+
+    private static String threadPrefix(OperationClass operationClass, String kind) {
+        return "file-" + operationClass.name().toLowerCase() + "-" + kind + "-";
+    }
+
+    /**
+     * Creates a thread-per-task executor backed by virtual threads.
+     * Looked up reflectively so the service still builds and runs on Java 17.
+     *
+     * @return the executor, or null if the running JVM does not support virtual threads
+     */
+    private static ExecutorService newVirtualThreadExecutor(String prefix) {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, prefix, 1L);
+            ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class
+                    .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Custom thread factory for naming threads in a pool.
+     */
+    private static class NamedThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger counter = new AtomicInteger(0);
+
+        NamedThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(@NotNull Runnable r) {
+            Thread t = new Thread(r, prefix + counter.incrementAndGet());
+            t.setDaemon(false);
+            return t;
+        }
+    }
+
+    /**
+     * Worker factory for work-stealing pools, naming threads like the regular pools.
+     */
+    private static class WorkStealingThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+        private final String prefix;
+        private final AtomicInteger counter = new AtomicInteger(0);
+
+        WorkStealingThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            t.setName(prefix + counter.incrementAndGet());
+            return t;
+        }
+    }
+}
@@ -6,39 +6,39 @@ import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.stereotype.Component;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Centralized manager for thread pools in the file processing microservice.
  * Provides scalable, monitored executor services for concurrent task execution.
  * Features:
+ * - One bulkhead pool per {@link OperationClass}, each with its own queue and limits
  * - Adaptive thread pool resizing
  * - Bounded queue with backpressure
+ * - Optional work-stealing ForkJoinPool for the CPU pool instead of a single shared queue
  * - Monitoring hooks
+ * - Optional virtual threads for the I/O and external pools (Java 21+)
  * - Safe shutdown
  */
 @Slf4j
 @Component
 public final class ThreadPoolManager {
 
-    private final ThreadPoolExecutor executor;
+    private final Map<OperationClass, OperationPool> pools;
     private final ScheduledExecutorService monitor;
-    private final ThreadPoolProperties properties;
 
     public ThreadPoolManager(ThreadPoolProperties properties) {
-        this.properties = properties;
-
-        this.executor = new ThreadPoolExecutor(
-                properties.getCoreSize(),
-                properties.getMaxSize(),
-                properties.getKeepAliveSeconds(),
-                TimeUnit.SECONDS,
-                new LinkedBlockingQueue<>(properties.getQueueCapacity()),
-                new FileProcessingThreadFactory(),
-                new ThreadPoolExecutor.CallerRunsPolicy()
-        );
-        executor.allowCoreThreadTimeOut(true);
+        Map<OperationClass, OperationPool> created = new EnumMap<>(OperationClass.class);
+        created.put(OperationClass.CPU,
+                properties.getExecutorType() == ThreadPoolProperties.ExecutorType.WORK_STEALING
+                        ? OperationPool.workStealing(OperationClass.CPU, properties.cpuPool())
+                        : OperationPool.threadPool(OperationClass.CPU, properties.cpuPool()));
+        created.put(OperationClass.IO, blockingPool(OperationClass.IO, properties.getIo(), properties));
+        created.put(OperationClass.EXTERNAL, blockingPool(OperationClass.EXTERNAL, properties.getExternal(), properties));
+        this.pools = Collections.unmodifiableMap(created);
 
         this.monitor = Executors.newSingleThreadScheduledExecutor(
                 r -> new Thread(r, "ThreadPoolMonitor")
@@ -50,91 +50,117 @@ public final class ThreadPoolManager {
         );
     }
 
+    private static OperationPool blockingPool(OperationClass operationClass, ThreadPoolProperties.Pool sizing,
+                                              ThreadPoolProperties properties) {
+        OperationPool virtualPool = properties.isVirtualThreads()
+                ? OperationPool.virtualThreads(operationClass, sizing)
+                : null;
+        return virtualPool != null ? virtualPool : OperationPool.threadPool(operationClass, sizing);
+    }
+
     /**
-     * Submit a task to the thread pool.
+     * Submit a task to the CPU-bound thread pool.
      */
     public <T> @NotNull Future<T> submit(Callable<T> task) {
-        return executor.submit(task);
+        return submit(OperationClass.CPU, task);
     }
 
     public @NotNull Future<?> submit(Runnable task) {
-        return executor.submit(task);
+        return submit(OperationClass.CPU, task);
+    }
+
+    /**
+     * Submit a task to the pool dedicated to the given operation class.
+     * When that pool is saturated the task runs on the calling thread.
+     */
+    public <T> @NotNull Future<T> submit(OperationClass operationClass, Callable<T> task) {
+        return pools.get(operationClass).submit(task);
+    }
+
+    public @NotNull Future<?> submit(OperationClass operationClass, Runnable task) {
+        return pools.get(operationClass).submit(Executors.callable(task));
+    }
+
+    /**
+     * @return true if the CPU pool is a work-stealing ForkJoinPool
+     */
+    public boolean isWorkStealing() {
+        return pools.get(OperationClass.CPU).isWorkStealing();
+    }
+
+    /**
+     * @return true if tasks of the given class run on virtual threads
+     */
+    public boolean isVirtual(OperationClass operationClass) {
+        return pools.get(operationClass).isVirtual();
     }
 
     /**
-     * Get the underlying executor.
+     * Get the underlying executor of the CPU pool.
      */
     public ExecutorService getExecutor() {
-        return executor;
+        return getExecutor(OperationClass.CPU);
     }
 
     /**
-     * Get current queue size.
+     * Get the underlying executor of the given class.
+     */
+    public ExecutorService getExecutor(OperationClass operationClass) {
+        return pools.get(operationClass).executor();
+    }
+
+    /**
+     * Get current queue size, summed over all pools.
      */
     public int getQueueSize() {
-        return executor.getQueue().size();
+        return pools.values().stream().mapToInt(OperationPool::queueSize).sum();
+    }
+
+    /**
+     * Get current queue size of the given class.
+     */
+    public int getQueueSize(OperationClass operationClass) {
+        return pools.get(operationClass).queueSize();
     }
 
     /**
-     * Get the approximate number of active tasks.
+     * Get the approximate number of active tasks, summed over all pools.
      */
     public int getActiveCount() {
-        return executor.getActiveCount();
+        return pools.values().stream().mapToInt(OperationPool::activeCount).sum();
     }
 
     /**
-     * Gracefully shutdown executor and monitor.
+     * Get the approximate number of active tasks of the given class.
+     */
+    public int getActiveCount(OperationClass operationClass) {
+        return pools.get(operationClass).activeCount();
+    }
+
+    /**
+     * Gracefully shutdown executors and monitor.
      */
     @PreDestroy
     public void shutdown() {
         log.info("Shutting down ThreadPoolManager...");
         monitor.shutdownNow();
-        executor.shutdown();
+        pools.values().forEach(pool -> pool.executor().shutdown());
         try {
-            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
-                executor.shutdownNow();
+            for (OperationPool pool : pools.values()) {
+                if (!pool.executor().awaitTermination(30, TimeUnit.SECONDS)) {
+                    pool.executor().shutdownNow();
+                }
             }
         } catch (InterruptedException e) {
-            executor.shutdownNow();
+            pools.values().forEach(pool -> pool.executor().shutdownNow());
             Thread.currentThread().interrupt();
         }
     }
 
     /**
-     * Adaptive resizing logic based on queue size.
+     * Adaptive resizing logic based on queue size, applied to each pool independently.
      */
     private void adjustPoolSize() {
-        int queueSize = executor.getQueue().size();
-
-        if (queueSize > properties.getResizeThreshold() &&
-                executor.getMaximumPoolSize() < properties.getMaxSize()) {
-
-            int newMax = Math.min(properties.getMaxSize(), executor.getMaximumPoolSize() + 2);
-            executor.setMaximumPoolSize(newMax);
-            executor.setCorePoolSize(newMax / 2);
-            log.info("[ThreadPoolManager] Increased pool size to {}", newMax);
-
-        } else if (queueSize < properties.getResizeThreshold() / 2 &&
-                executor.getCorePoolSize() > properties.getCoreSize()) {
-
-            int newCore = Math.max(properties.getCoreSize(), executor.getCorePoolSize() - 1);
-            executor.setCorePoolSize(newCore);
-            executor.setMaximumPoolSize(newCore * 2);
-            log.info("[ThreadPoolManager] Decreased pool size to {}", newCore);
-        }
-    }
-
-    /**
-     * Custom thread factory for naming threads in this pool.
-     */
-    private static class FileProcessingThreadFactory implements ThreadFactory {
-        private final AtomicInteger counter = new AtomicInteger(0);
-
-        @Override
-        public Thread newThread(@NotNull Runnable r) {
-            Thread t = new Thread(r, "file-task-thread-" + counter.incrementAndGet());
-            t.setDaemon(false);
-            return t;
-        }
+        pools.values().forEach(OperationPool::adjustSize);
     }
 }
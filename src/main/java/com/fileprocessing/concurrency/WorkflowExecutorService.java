@@ -2,12 +2,17 @@ package com.fileprocessing.concurrency;
 
 import com.fileprocessing.FileSpec.OperationStatus;
 import com.fileprocessing.FileSpec.OperationType;
+import com.fileprocessing.compression.CompressionCodecs;
+import com.fileprocessing.config.CompressionProperties;
+import com.fileprocessing.config.StorageProperties;
 import com.fileprocessing.model.*;
 import com.fileprocessing.model.concurrency.FileTask;
 import com.fileprocessing.model.concurrency.FileWorkflow;
 import com.fileprocessing.service.monitoring.FileProcessingMetrics;
+import com.fileprocessing.util.ContentAddressedStore;
+import com.fileprocessing.util.ContentValidator;
+import com.fileprocessing.util.DecodedImageContext;
 import com.fileprocessing.util.FileOperations;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -16,7 +21,7 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
@@ -25,58 +30,97 @@ import java.util.function.Consumer;
  * Tracks per-task metrics and ensures error isolation for failed tasks.
  */
 @Slf4j
-@RequiredArgsConstructor
 @Service
 public class WorkflowExecutorService {
 
+    /** VALIDATE parameter selecting the {@link ContentValidator.Level}, {@code fast} by default. */
+    static final String VALIDATION_LEVEL_PARAMETER = "level";
+
     private final ThreadPoolManager threadPoolManager;
     private final FileProcessingMetrics processingMetrics;
+    private final CompressionProperties compressionProperties;
+    private final CompressionCodecs compressionCodecs;
+    private final ContentAddressedStore store;
+    private final Path compressionOutputDirectory;
+
+    public WorkflowExecutorService(ThreadPoolManager threadPoolManager, FileProcessingMetrics processingMetrics,
+                                   CompressionProperties compressionProperties, CompressionCodecs compressionCodecs,
+                                   StorageProperties storageProperties) {
+        this.threadPoolManager = threadPoolManager;
+        this.processingMetrics = processingMetrics;
+        this.compressionProperties = compressionProperties;
+        this.compressionCodecs = compressionCodecs;
+        this.store = new ContentAddressedStore(Path.of(storageProperties.getDirectory()));
+        this.compressionOutputDirectory = Path.of(compressionProperties.getOutputDirectory());
+    }
 
     /**
-     * Process all files and operations in the workflow request concurrently.
+     * Process all files and operations in the workflow request concurrently,
+     * blocking the calling thread until every task has completed.
      *
      * @param requestModel The internal request containing files and operations
      * @return Summary of processing results
+     * @see #processWorkflowAsync(FileProcessingRequestModel)
      */
     public FileProcessingSummaryModel processWorkflow(FileProcessingRequestModel requestModel) {
-        List<FileTask> tasks = buildFileTasks(requestModel);
+        return processWorkflowAsync(requestModel).join();
+    }
+
+    /**
+     * Process all files and operations in the workflow request concurrently without blocking the caller.
+     * <p>
+     *  The returned future is completed with the summary by the thread finishing the last task, so
+     *  callers such as gRPC handlers can respond from its callback instead of holding their thread
+     *  for the whole workflow. Failed tasks are reported in the summary; the future itself only
+     *  completes exceptionally if the workflow could not be scheduled.
+     * </p>
+     *
+     * @param requestModel The internal request containing files and operations
+     * @return a future completed with the summary of processing results
+     */
+    public CompletableFuture<FileProcessingSummaryModel> processWorkflowAsync(FileProcessingRequestModel requestModel) {
+        List<FileOperationPlan> plans = buildPlans(requestModel);
+        List<FileTask> tasks = tasksOf(plans);
 
         if (tasks.isEmpty()) {
-            return FileProcessingSummaryModel.builder()
+            return CompletableFuture.completedFuture(FileProcessingSummaryModel.builder()
                     .totalFiles(0)
                     .successfulFiles(0)
                     .failedFiles(0)
                     .results(Collections.emptyList())
-                    .build();
+                    .build());
         }
 
         FileWorkflow workflow = FileWorkflow.of(tasks);
         log.info("Submitting workflow {} with {} tasks", workflow.workflowId(), tasks.size());
 
-        // Submit all tasks and attach error handling
-        List<CompletableFuture<FileOperationResultModel>> futures = tasks.stream()
-                .map(task -> submitTask(task)
-                        .exceptionally(ex -> createFailedResult(
-                                task.file().fileId(),
-                                task.operation().operationType(),
-                                ex)))
+        // Schedule all tasks in dependency order and attach error handling
+        List<CompletableFuture<FileOperationResultModel>> futures = plans.stream()
+                .flatMap(plan -> plan.tasks().stream()
+                        .map(task -> scheduleTask(plan, task)
+                                .exceptionally(ex -> createFailedResult(
+                                        task.file().fileId(),
+                                        task.operation().operationType(),
+                                        ex))))
                 .toList();
 
+        // Summarize once all tasks have completed
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> summarize(requestModel, futures.stream()
+                        .map(CompletableFuture::join)
+                        .toList()));
+    }
 
-        // Wait for all tasks to complete
-        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
-
-        // Collect results
-        List<FileOperationResultModel> results = futures.stream()
-                .map(CompletableFuture::join)
-                .toList();
-
+    private FileProcessingSummaryModel summarize(FileProcessingRequestModel requestModel,
+                                                 List<FileOperationResultModel> results) {
         long successCount = 0;
+        long failedCount = 0;
 
         for (FileOperationResultModel result : results) {
             if (result.status() == OperationStatus.SUCCESS) {
                 successCount++;
-            } else {
+            } else if (result.status() == OperationStatus.FAILED) {
+                failedCount++;
                 processingMetrics.incrementFailedTasks();
             }
         }
@@ -84,7 +128,7 @@ public class WorkflowExecutorService {
         return FileProcessingSummaryModel.builder()
                 .totalFiles(requestModel.files().size())
                 .successfulFiles((int) successCount)
-                .failedFiles(results.size() - (int) successCount)
+                .failedFiles((int) failedCount)
                 .results(results)
                 .build();
     }
@@ -109,8 +153,10 @@ public class WorkflowExecutorService {
      *
      * <p><b>Thread Safety:</b>
      * <ul>
-     *     <li>Writes to the resultConsumer are serialized using an internal lock to avoid
-     *         concurrent write issues (especially important for gRPC streaming).</li>
+     *     <li>The resultConsumer is called directly from the pool threads completing the tasks, possibly
+     *         concurrently, and must therefore be thread-safe. gRPC callers hand results to a
+     *         {@code SerializedStreamWriter} or {@code OutboundResultBuffer}, which
+     *         serialize writes to the response observer without blocking the pool.</li>
      * </ul>
      * </p>
      *
@@ -118,23 +164,22 @@ public class WorkflowExecutorService {
      * (successful or failed) have been processed and delivered to the consumer.</p>
      *
      * @param requestModel   the internal request model containing files and requested operations
-     * @param resultConsumer a callback invoked with each {@link FileOperationResultModel} as soon as it is available
+     * @param resultConsumer a thread-safe callback invoked with each {@link FileOperationResultModel} as soon as
+     *                       it is available
      * @return a {@link CompletableFuture} that completes when all file operations have been processed and delivered
      */
     public CompletableFuture<Void> processWorkflowStreamed(FileProcessingRequestModel requestModel,
                                                            Consumer<FileOperationResultModel> resultConsumer) {
-        List<FileTask> tasks = buildFileTasks(requestModel);
+        List<FileOperationPlan> plans = buildPlans(requestModel);
 
-        if (tasks.isEmpty()) {
+        if (plans.isEmpty()) {
             return CompletableFuture.completedFuture(null);
         }
 
-        Object writeLock = new Object(); // ensure single-thread writes
-
         // Submit all tasks
         long startTime = System.currentTimeMillis();
-        List<CompletableFuture<FileOperationResultModel>> futures = tasks.stream()
-                .map(task -> submitTask(task)
+        List<CompletableFuture<FileOperationResultModel>> futures = plans.stream()
+                .flatMap(plan -> plan.tasks().stream().map(task -> scheduleTask(plan, task)
                         .whenComplete((result, ex) -> {
                             long duration = System.currentTimeMillis() - startTime;
                             if (ex != null) {
@@ -145,22 +190,20 @@ public class WorkflowExecutorService {
                                 task.completeExceptionally(ex, processingMetrics, duration);
                                 processingMetrics.incrementFailedTasks();
                             } else {
-                                if (result.status() != OperationStatus.SUCCESS) {
+                                if (result.status() == OperationStatus.FAILED) {
                                     processingMetrics.incrementFailedTasks();
                                 }
                                 task.complete(result, processingMetrics, duration);
                             }
                             if (result != null) {
                                 try {
-                                    synchronized (writeLock) {
-                                        resultConsumer.accept(result);
-                                    }
+                                    resultConsumer.accept(result);
                                 } catch (Exception consumeEx) {
                                     log.error("Error delivering result for file {}",
                                             task.file().fileId(), consumeEx);
                                 }
                             }
-                        }))
+                        })))
                 .toList();
 
         // Return a future that completes when all results are delivered
@@ -168,42 +211,107 @@ public class WorkflowExecutorService {
     }
 
     /**
-     * Build a list of tasks for all files and their operations.
+     * Build one dependency-aware plan per file for its requested operations.
      */
-    private List<FileTask> buildFileTasks(FileProcessingRequestModel req) {
-        List<FileTask> tasks = new ArrayList<>();
+    private List<FileOperationPlan> buildPlans(FileProcessingRequestModel req) {
+        List<FileOperationPlan> plans = new ArrayList<>();
         for (FileModel file : req.files()) {
             var ops = req.fileSpecificOperations().getOrDefault(file.fileId(), req.defaultOperations());
 
             if (ops.isEmpty()) {
                 // TODO: Decide on default operation for files with no requested operations (e.g., VALIDATE)
+                continue;
             }
 
+            List<FileOperation> fileOperations = new ArrayList<>();
             for (var op : ops) {
-                FileOperation fileOperation = FileOperation.builder()
+                fileOperations.add(FileOperation.builder()
                         .operationType(op)
-                        .parameters(Map.of()) // TODO: Add configurable parameters per operation if needed
-                        .build();
-                tasks.add(new FileTask(file, fileOperation));
+                        .parameters(req.parametersOf(op))
+                        .build());
             }
+            plans.add(FileOperationPlan.of(file, fileOperations, compressionProperties.isFuseWithStorage()));
         }
-        return tasks;
+        return plans;
+    }
+
+    private static List<FileTask> tasksOf(List<FileOperationPlan> plans) {
+        return plans.stream().flatMap(plan -> plan.tasks().stream()).toList();
+    }
+
+    /**
+     * Submit a task once all of its dependencies within the file plan have completed.
+     * Independent tasks are submitted immediately; if any required dependency did not succeed, the task
+     * is completed as SKIPPED without ever reaching the thread pool.
+     */
+    private CompletableFuture<FileOperationResultModel> scheduleTask(FileOperationPlan plan, FileTask task) {
+        List<FileTask> dependencies = plan.dependenciesOf(task);
+        if (dependencies.isEmpty()) {
+            return submitTask(plan, task);
+        }
+
+        List<FileTask> required = plan.requiredDependenciesOf(task);
+        CompletableFuture.allOf(dependencies.stream()
+                        .map(FileTask::futureResult)
+                        .toArray(CompletableFuture[]::new))
+                .whenComplete((ignored, ex) -> firstUnsuccessful(required).ifPresentOrElse(
+                        failed -> skipTask(plan, task, failed),
+                        () -> submitTask(plan, task)));
+        return task.futureResult();
+    }
+
+    /**
+     * @return the first dependency that failed, was skipped or completed exceptionally, if any
+     */
+    private static Optional<FileTask> firstUnsuccessful(List<FileTask> dependencies) {
+        return dependencies.stream()
+                .filter(dep -> !succeeded(dep))
+                .findFirst();
+    }
+
+    private static boolean succeeded(FileTask task) {
+        return !task.futureResult().isCompletedExceptionally()
+                && task.futureResult().join().status() == OperationStatus.SUCCESS;
+    }
+
+    /**
+     * Complete a task as SKIPPED because one of its dependencies did not succeed.
+     */
+    private void skipTask(FileOperationPlan plan, FileTask task, FileTask failedDependency) {
+        OperationType operation = task.operation().operationType();
+        OperationType cause = failedDependency.operation().operationType();
+        log.info("Skipping {} on file {}: {} did not succeed", operation, task.file().fileName(), cause);
+
+        plan.release(task);
+        processingMetrics.incrementSkippedTasks();
+        Instant now = Instant.now();
+        task.futureResult().complete(FileOperationResultModel.builder()
+                .fileId(task.file().fileId())
+                .operationType(operation)
+                .status(OperationStatus.SKIPPED)
+                .details("Skipped: " + cause + " did not succeed")
+                .startTime(now)
+                .endTime(now)
+                .resultLocation("")
+                .build());
     }
 
     /**
      * Submit a task to the thread pool and return a CompletableFuture for its result.
+     * Each task runs on the pool of its {@link OperationClass}.
      * Metrics are tracked, and failures are isolated per task.
      */
-    private CompletableFuture<FileOperationResultModel> submitTask(FileTask task) {
+    private CompletableFuture<FileOperationResultModel> submitTask(FileOperationPlan plan, FileTask task) {
         processingMetrics.incrementActiveTasks();
         CompletableFuture<FileOperationResultModel> future = task.futureResult();
 
-        threadPoolManager.submit(() -> {
+        Runnable work = () -> {
             long start = System.currentTimeMillis();
+            long startNanos = System.nanoTime();
             try {
-                FileOperationResultModel result = executeOperation(
-                        task.file(),
-                        task.operation().operationType());
+                FileOperationResultModel result = executeOperation(plan, task);
+                processingMetrics.recordOperation(result.operationType(), result.status(),
+                        System.nanoTime() - startNanos);
                 future.complete(result);
                 task.complete(result, processingMetrics, System.currentTimeMillis() - start); // task-level metrics updated here
             } catch (Throwable t) {
@@ -212,37 +320,72 @@ public class WorkflowExecutorService {
                         task.operation().operationType(),
                         t.getMessage(), t);
                 processingMetrics.incrementFailedTasks();
+                processingMetrics.recordOperation(task.operation().operationType(), OperationStatus.FAILED,
+                        System.nanoTime() - startNanos);
                 future.completeExceptionally(t);
             } finally {
+                plan.release(task);
                 long duration = System.currentTimeMillis() - start;
                 processingMetrics.recordTaskCompletion(duration);
                 processingMetrics.decrementActiveTasks();
             }
-        });
+        };
 
+        threadPoolManager.submit(OperationClass.of(task.operation().operationType()), work);
         return future;
     }
 
     /**
-     * Executes a file operation. This currently calls mocked utility methods.
+     * Executes a file operation on the task's input: the original file, or the artifact of the
+     * transform it consumes. Transform outputs are recorded in the plan for downstream tasks.
      * TODO: Replace mocks with real services for each operation type.
      */
-    private FileOperationResultModel executeOperation(FileModel file, OperationType operation) {
+    private FileOperationResultModel executeOperation(FileOperationPlan plan, FileTask task) {
         Instant start = Instant.now();
+        FileModel file = task.file();
+        OperationType operation = task.operation().operationType();
 
         try {
             log.info("Executing {} on file {}", operation, file.fileName());
 
+            FileModel input = plan.inputOf(task);
+            DecodedImageContext images = plan.imageContextOf(task);
             Path tempFilePath = null; // Placeholder for actual file path handling
+            String details = "Operation completed successfully";
 
             switch (operation) {
-                case VALIDATE -> FileOperations.validateFile(file);
-                case METADATA_EXTRACTION -> FileOperations.extractMetadata(file);
-                case OCR_TEXT_EXTRACTION -> FileOperations.performOcr(file);
-                case IMAGE_RESIZE -> FileOperations.resizeImage(file, 800, 600); // Default max dimensions
-                case FILE_COMPRESSION -> tempFilePath = FileOperations.compressFile(file);
-                case FORMAT_CONVERSION -> FileOperations.convertFormat(file, "jpg"); // Default format
-                case STORAGE -> FileOperations.storeFile(file);
+                case VALIDATE -> FileOperations.validateFile(input, images,
+                        ContentValidator.Level.of(task.operation().getParameter(VALIDATION_LEVEL_PARAMETER)));
+                case METADATA_EXTRACTION -> FileOperations.extractMetadata(input, images);
+                case OCR_TEXT_EXTRACTION -> FileOperations.performOcr(input);
+                case IMAGE_RESIZE -> plan.recordOutput(task,
+                        FileOperations.resizeImage(input, images, 800, 600)); // Default max dimensions
+                case FILE_COMPRESSION -> {
+                    CompressionCodecs.Selection selection = compressionCodecs.select(task.operation(), input);
+                    boolean intoStorage = plan.storesOutput(task);
+                    FileOperations.CompressionResult compressed = intoStorage
+                            ? FileOperations.compressAndStoreFile(input, selection.codec(), selection.level(), store)
+                            : FileOperations.compressFile(input, selection.codec(), selection.level(),
+                                    compressionOutputDirectory);
+                    tempFilePath = compressed.path();
+                    details = (intoStorage ? "Compressed into storage with " : "Compressed with ")
+                            + selection.describe() + " " + compressed.describe();
+                }
+                case FORMAT_CONVERSION -> plan.recordOutput(task,
+                        FileOperations.convertFormat(input, images, "jpg")); // Default format
+                case STORAGE -> {
+                    Optional<FileTask> fused = plan.fusedCompressionOf(task);
+                    if (fused.isPresent() && succeeded(fused.get())) {
+                        // Already written by FILE_COMPRESSION, which completed before this task
+                        tempFilePath = Path.of(fused.get().futureResult().join().resultLocation());
+                        details = "Stored compressed output of FILE_COMPRESSION";
+                    } else {
+                        tempFilePath = FileOperations.storeFile(input, store);
+                        if (fused.isPresent()) {
+                            details = "Stored original file: FILE_COMPRESSION did not succeed";
+                        }
+                    }
+                }
                 default -> log.warn("Unknown operation: {}, skipping", operation);
             }
 
@@ -250,7 +393,7 @@ public class WorkflowExecutorService {
                     .fileId(file.fileId())
                     .operationType(operation)
                     .status(OperationStatus.SUCCESS)
-                    .details("Operation completed successfully")
+                    .details(details)
                     .startTime(start)
                     .endTime(Instant.now())
                     .resultLocation(tempFilePath != null ? tempFilePath.toString() : "/mock/location/" + file.fileName())
@@ -0,0 +1,89 @@
+package com.fileprocessing.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "fileprocessing.compression")
+public class CompressionProperties {
+
+    /** Codec of FILE_COMPRESSION unless the operation selects one with its {@code codec} parameter. */
+    private String codec = "gzip";
+
+    /**
+     * File holding the preset dictionary of the {@code deflate} codec, such as a concatenation of typical
+     * files; only its last 32 KiB are used. Empty for no dictionary.
+     */
+    private String deflateDictionary = "";
+
+    /**
+     * Choose the level per file from a sampled entropy estimate: store-only for already-compressed content
+     * such as JPEG or PNG, fastest for moderately compressible content, best ratio otherwise.
+     * Applies to codecs with levels when the operation has no {@code level} parameter.
+     * When disabled, such files are compressed with {@link #level}.
+     */
+    private boolean adaptive = true;
+
+    /** Deflate level of FILE_COMPRESSION when not adaptive, 1 (fastest) to 9 (smallest), or -1 for the zlib default (6). */
+    private int level = -1;
+
+    /**
+     * Size of the blocks compressed in parallel, in KiB. Files up to one block are compressed on the task's
+     * own thread; larger files are split and their blocks deflated concurrently on the CPU pool.
+     */
+    private int blockSizeKb = 1024;
+
+    /**
+     * When a file is both compressed and stored without being resized or converted, FILE_COMPRESSION deflates
+     * straight into storage and STORAGE reports that artifact, so the file is written once, compressed.
+     * When disabled, the compressed file goes to {@link #outputDirectory} and STORAGE stores the original bytes.
+     */
+    private boolean fuseWithStorage = true;
+
+    /**
+     * Directory FILE_COMPRESSION writes to when its output is not fused into storage. Each output is named
+     * {@code <fileId>_<fileName><extension>} and replaces an earlier output of the same file.
+     */
+    private String outputDirectory = "processed_files/compressed";
+
+    /** Maximum number of blocks of one file compressed at once; 0 uses the number of available processors. */
+    private int parallelism = 0;
+
+    /** Dictionaries of the {@code dictionary} codec, trained from recent files of each tenant and file type. */
+    private Dictionary dictionary = new Dictionary();
+
+    /**
+     * Training of the dictionaries used by the {@code dictionary} codec.
+     */
+    @Setter
+    @Getter
+    public static class Dictionary {
+        /** Directory the trained dictionaries are written to, so that their output can be inflated later. */
+        private String directory = "processed_files/dictionaries";
+        /** Maximum dictionary size in bytes; deflate cannot refer back further than 32768. */
+        private int sizeBytes = 16 * 1024;
+        /** Number of most recent files kept as training samples per tenant and file type. */
+        private int samples = 64;
+        /** Files larger than this are not sampled; dictionaries pay off for small files. */
+        private int maxSampleBytes = 16 * 1024;
+        /** Number of samples required before the first dictionary is trained. */
+        private int minSamples = 8;
+        /** Number of new samples after which a new dictionary version is trained. */
+        private int retrainEvery = 256;
+        /**
+         * Maximum number of tenant and file type pairs whose samples are kept in memory; the least recently
+         * used is dropped beyond it. Its saved dictionaries stay on disk and are reloaded when it is used again.
+         */
+        private int maxCorpora = 256;
+        /** Tenants that are sampled and compressed with a dictionary; empty allows every tenant. */
+        private List<String> tenants = new ArrayList<>();
+    }
+
+}
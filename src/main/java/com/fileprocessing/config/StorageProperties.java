@@ -0,0 +1,20 @@
+package com.fileprocessing.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "fileprocessing.storage")
+public class StorageProperties {
+
+    /**
+     * Root of the content-addressed store written by STORAGE and by FILE_COMPRESSION fused with it:
+     * blobs under {@code blobs/}, references under {@code <type>/}.
+     */
+    private String directory = "processed_files";
+
+}
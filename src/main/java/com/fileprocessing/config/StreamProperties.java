@@ -0,0 +1,28 @@
+package com.fileprocessing.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "fileprocessing.stream")
+public class StreamProperties {
+
+    /**
+     * Maximum number of files of a single stream being processed at once. For live streams the server
+     * stops requesting messages from the client once this many files are in flight.
+     */
+    private int maxInFlightFiles = 16;
+
+    /**
+     * Number of results buffered for a slow consumer of a server stream at which no further files
+     * of that stream are started until the client catches up. This is a soft limit: files already in
+     * flight still deliver their results, so a stream may buffer up to
+     * {@code outboundBufferSize + maxInFlightFiles × operations per file} results.
+     */
+    private int outboundBufferSize = 256;
+
+}
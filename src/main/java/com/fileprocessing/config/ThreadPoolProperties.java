@@ -1,6 +1,7 @@
 package com.fileprocessing.config;
 
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
@@ -11,11 +12,69 @@ import org.springframework.context.annotation.Configuration;
 @ConfigurationProperties(prefix = "fileprocessing.threadpool")
 public class ThreadPoolProperties {
 
-    private int coreSize = Runtime.getRuntime().availableProcessors();
-    private int maxSize = Runtime.getRuntime().availableProcessors() * 4;
+    private static final int CORES = Runtime.getRuntime().availableProcessors();
+
+    // Pool for CPU-bound operations (validation, metadata, image resize/conversion)
+    private int coreSize = CORES;
+    private int maxSize = CORES * 4;
     private int queueCapacity = 200;
     private int resizeThreshold = 50;
     private long keepAliveSeconds = 60;
     private long monitorIntervalSeconds = 10;
 
+    /** Pool for I/O-bound operations (storage, compression), sized larger than the CPU pool. */
+    private Pool io = new Pool(CORES * 2, CORES * 8, 400, 100);
+
+    /** Isolated pool for operations calling external tools (OCR). */
+    private Pool external = new Pool(2, 4, 50, 10);
+
+    /**
+     * Implementation of the CPU-bound pool. WORK_STEALING uses a ForkJoinPool with per-worker deques,
+     * which avoids contention on a single shared queue under bursts of small tasks.
+     */
+    private ExecutorType executorType = ExecutorType.THREAD_POOL;
+
+    /**
+     * Run the I/O and external pools on virtual threads instead of platform threads, still limited to
+     * their {@code maxSize} concurrent tasks. Requires a Java 21+ runtime; ignored with a warning on
+     * older JVMs. CPU-heavy work always stays on the bounded platform pool.
+     */
+    private boolean virtualThreads = false;
+
+    public enum ExecutorType {
+        /** ThreadPoolExecutor with a shared bounded queue and adaptive resizing. */
+        THREAD_POOL,
+        /** ForkJoinPool in async (FIFO) mode with per-worker work-stealing deques. */
+        WORK_STEALING
+    }
+
+    /**
+     * Sizing of a secondary operation pool.
+     */
+    @Setter
+    @Getter
+    @NoArgsConstructor
+    public static class Pool {
+        private int coreSize;
+        private int maxSize;
+        private int queueCapacity;
+        private int resizeThreshold;
+        private long keepAliveSeconds = 60;
+
+        public Pool(int coreSize, int maxSize, int queueCapacity, int resizeThreshold) {
+            this.coreSize = coreSize;
+            this.maxSize = maxSize;
+            this.queueCapacity = queueCapacity;
+            this.resizeThreshold = resizeThreshold;
+        }
+    }
+
+    /**
+     * @return the sizing of the CPU-bound pool, taken from the top-level properties
+     */
+    public Pool cpuPool() {
+        Pool cpu = new Pool(coreSize, maxSize, queueCapacity, resizeThreshold);
+        cpu.setKeepAliveSeconds(keepAliveSeconds);
+        return cpu;
+    }
 }
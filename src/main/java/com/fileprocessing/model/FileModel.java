@@ -1,17 +1,25 @@
 package com.fileprocessing.model;
 
-import java.util.Arrays;
+import com.google.protobuf.ByteString;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
 /**
  * Represents a file to be processed in the file processing microservice.
  * Immutable, validated, and thread-safe.
+ * <p>
+ *  Content is held as an immutable {@link ByteString}, so the same bytes can be shared between the
+ *  gRPC message, this model and every operation without defensive copies.
+ * </p>
  */
 public record FileModel(
         String fileId,
         String fileName,
-        byte[] content,
+        ByteString data,
         String fileType,
         long sizeBytes
 ) {
@@ -27,19 +35,49 @@ public record FileModel(
         Objects.requireNonNull(fileType, "fileType cannot be null");
 
         fileType = fileType.toLowerCase();
-        content = (content != null) ? Arrays.copyOf(content, content.length) : new byte[0];
+        data = (data != null) ? data : ByteString.EMPTY;
 
         if (sizeBytes < 0) {
             throw new IllegalArgumentException("sizeBytes cannot be negative");
         }
     }
 
+    /**
+     * Constructor from a raw byte array. The array is copied once so later changes by the caller are not visible.
+     */
+    public FileModel(String fileId, String fileName, byte[] content, String fileType, long sizeBytes) {
+        this(fileId, fileName, content != null ? ByteString.copyFrom(content) : null, fileType, sizeBytes);
+    }
+
     /**
      * Returns a copy of the file content to prevent external modification.
+     * Prefer {@link #data()}, {@link #contentStream()} or {@link #contentBuffers()} on hot paths.
      */
-    @Override
     public byte[] content() {
-        return Arrays.copyOf(content, content.length);
+        return data.toByteArray();
+    }
+
+    /**
+     * Returns a read-only view of the file content. Content assembled from several chunks is flattened
+     * into a single copy first; use {@link #contentBuffers()} to read it without copying.
+     */
+    public ByteBuffer contentBuffer() {
+        return data.asReadOnlyByteBuffer();
+    }
+
+    /**
+     * Returns read-only views of the file content without copying it, one per contiguous segment:
+     * a single buffer for content received in one piece, one per chunk for content assembled from chunks.
+     */
+    public List<ByteBuffer> contentBuffers() {
+        return data.asReadOnlyByteBufferList();
+    }
+
+    /**
+     * Returns a stream over the file content without copying it.
+     */
+    public InputStream contentStream() {
+        return data.newInput();
     }
 
     /**
@@ -66,7 +104,7 @@ public record FileModel(
     public static class FileModelBuilder {
         private String fileId;
         private String fileName;
-        private byte[] content;
+        private ByteString data;
         private String fileType;
         private long sizeBytes;
 
@@ -81,7 +119,15 @@ public record FileModel(
         }
 
         public FileModelBuilder content(byte[] content) {
-            this.content = (content != null) ? Arrays.copyOf(content, content.length) : null;
+            this.data = (content != null) ? ByteString.copyFrom(content) : null;
+            return this;
+        }
+
+        /**
+         * Sets the content without copying it.
+         */
+        public FileModelBuilder data(ByteString data) {
+            this.data = data;
             return this;
         }
 
@@ -96,7 +142,7 @@ public record FileModel(
         }
 
         public FileModel build() {
-            return new FileModel(fileId, fileName, content, fileType, sizeBytes);
+            return new FileModel(fileId, fileName, data, fileType, sizeBytes);
         }
     }
 }
@@ -11,7 +11,8 @@ import java.util.*;
 public record FileProcessingRequestModel(
         List<FileModel> files,
         List<OperationType> defaultOperations,
-        Map<String, List<OperationType>> fileSpecificOperations
+        Map<String, List<OperationType>> fileSpecificOperations,
+        Map<OperationType, Map<String, Object>> operationParameters
 ) {
 
     /**
@@ -36,6 +37,32 @@ public record FileProcessingRequestModel(
         } else {
             fileSpecificOperations = Collections.emptyMap();
         }
+
+        if (operationParameters != null) {
+            Map<OperationType, Map<String, Object>> copy = new EnumMap<>(OperationType.class);
+            for (Map.Entry<OperationType, Map<String, Object>> entry : operationParameters.entrySet()) {
+                copy.put(entry.getKey(), Map.copyOf(entry.getValue()));
+            }
+            operationParameters = Collections.unmodifiableMap(copy);
+        } else {
+            operationParameters = Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Creates a request without operation parameters.
+     */
+    public FileProcessingRequestModel(List<FileModel> files,
+                                      List<OperationType> defaultOperations,
+                                      Map<String, List<OperationType>> fileSpecificOperations) {
+        this(files, defaultOperations, fileSpecificOperations, null);
+    }
+
+    /**
+     * Returns the parameters requested for the given operation, or an empty map if none.
+     */
+    public Map<String, Object> parametersOf(OperationType operation) {
+        return operationParameters.getOrDefault(operation, Collections.emptyMap());
     }
 
     /**
@@ -49,6 +76,7 @@ public record FileProcessingRequestModel(
         private final List<FileModel> files = new ArrayList<>();
         private final List<OperationType> defaultOperations = new ArrayList<>();
         private final Map<String, List<OperationType>> fileSpecificOperations = new HashMap<>();
+        private final Map<OperationType, Map<String, Object>> operationParameters = new EnumMap<>(OperationType.class);
 
         public FileProcessingRequestModelBuilder files(List<FileModel> files) {
             if (files != null) {
@@ -85,8 +113,15 @@ public record FileProcessingRequestModel(
             return this;
         }
 
+        public FileProcessingRequestModelBuilder addOperationParameter(OperationType operation, String name, Object value) {
+            if (operation != null && name != null && value != null) {
+                this.operationParameters.computeIfAbsent(operation, op -> new HashMap<>()).put(name, value);
+            }
+            return this;
+        }
+
         public FileProcessingRequestModel build() {
-            return new FileProcessingRequestModel(files, defaultOperations, fileSpecificOperations);
+            return new FileProcessingRequestModel(files, defaultOperations, fileSpecificOperations, operationParameters);
         }
     }
 }
@@ -1,5 +1,6 @@
 package com.fileprocessing.service;
 
+import com.fileprocessing.FileProcessingServiceGrpc;
 import com.fileprocessing.FileProcessingServiceGrpc.FileProcessingServiceImplBase;
 import com.fileprocessing.FileSpec.*;
 import com.fileprocessing.model.FileProcessingRequestModel;
@@ -16,11 +17,26 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.devh.boot.grpc.server.service.GrpcService;
 
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
 @Slf4j
 @GrpcService
 @RequiredArgsConstructor
 public class FileProcessingServiceImpl extends FileProcessingServiceImplBase {
 
+    // RPC names used to tag request latency metrics
+    private static final String PROCESS_FILE = FileProcessingServiceGrpc.getProcessFileMethod().getBareMethodName();
+    private static final String STREAM_FILE_OPERATIONS =
+            FileProcessingServiceGrpc.getStreamFileOperationsMethod().getBareMethodName();
+    private static final String UPLOAD_FILES = FileProcessingServiceGrpc.getUploadFilesMethod().getBareMethodName();
+    private static final String UPLOAD_FILE_CHUNKS =
+            FileProcessingServiceGrpc.getUploadFileChunksMethod().getBareMethodName();
+    private static final String LIVE_FILE_PROCESSING =
+            FileProcessingServiceGrpc.getLiveFileProcessingMethod().getBareMethodName();
+    private static final String LIVE_FILE_CHUNK_PROCESSING =
+            FileProcessingServiceGrpc.getLiveFileChunkProcessingMethod().getBareMethodName();
+
     private final FileProcessingMetrics processingMetrics;
     private final ProcessFileService processFileService;
     private final StreamFileOperationsService streamFileOperationsService;
@@ -31,42 +47,66 @@ public class FileProcessingServiceImpl extends FileProcessingServiceImplBase {
     //  Outer service = translate request, delegate, update metrics.
     //  Inner service = owns the lifecycle of the StreamObserver.
 
+    /**
+     * Responds from the completion callback of the workflow, so the gRPC handler thread is released as
+     * soon as the operations have been scheduled instead of waiting for them to finish.
+     */
     @Override
     public void processFile(FileProcessingRequest fileProcessingRequest,
                             StreamObserver<FileProcessingSummary> responseObserver) {
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
         processingMetrics.incrementActiveRequests();
 
+        FileProcessingRequestModel fileProcessingRequestModel;
+        try {
+            fileProcessingRequestModel = ProtoConverter.toInternalModel(fileProcessingRequest);
+        } catch (IllegalArgumentException e) {
+            rejectInvalidRequest(responseObserver, e);
+            completeRequest(PROCESS_FILE, startTime);
+            return;
+        }
+
         try {
-            FileProcessingRequestModel fileProcessingRequestModel = ProtoConverter.toInternalModel(fileProcessingRequest);
-            FileProcessingSummaryModel fileProcessingSummaryModel = processFileService.processFiles(fileProcessingRequestModel);
-            FileProcessingSummary response = ProtoConverter.toProto(fileProcessingSummaryModel);
-            responseObserver.onNext(response);
-            responseObserver.onCompleted();
+            processFileService.processFilesAsync(fileProcessingRequestModel)
+                    .whenComplete((fileProcessingSummaryModel, ex) -> {
+                        try {
+                            if (ex != null) {
+                                failProcessFile(responseObserver, ex instanceof CompletionException && ex.getCause() != null
+                                        ? ex.getCause() : ex);
+                                return;
+                            }
+                            FileProcessingSummary response = ProtoConverter.toProto(fileProcessingSummaryModel);
+                            responseObserver.onNext(response);
+                            responseObserver.onCompleted();
+                        } catch (Exception e) {
+                            failProcessFile(responseObserver, e);
+                        } finally {
+                            completeRequest(PROCESS_FILE, startTime);
+                        }
+                    });
         } catch (Exception e) {
-            log.error("Error processing file workflow", e);
-            processingMetrics.incrementFailedRequests();
-            responseObserver.onError(
-                    Status.INTERNAL
-                            .withDescription("File processing failed: " + e.getMessage())
-                            .withCause(e)
-                            .asRuntimeException()
-            );
-        } finally {
-            processingMetrics.decrementActiveRequests();
-            processingMetrics.recordRequestCompletion(System.currentTimeMillis() - startTime);
-            log.info("Current Metrics: {}", processingMetrics);
+            failProcessFile(responseObserver, e);
+            completeRequest(PROCESS_FILE, startTime);
         }
     }
 
     @Override
     public void streamFileOperations(FileProcessingRequest request,
                                      StreamObserver<FileOperationResult> responseObserver) {
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
         processingMetrics.incrementActiveRequests();
 
+        FileProcessingRequestModel model;
         try {
-            FileProcessingRequestModel model = ProtoConverter.toInternalModel(request);
+            model = ProtoConverter.toInternalModel(request);
+        } catch (IllegalArgumentException e) {
+            rejectInvalidRequest(responseObserver, e);
+            completeRequest(STREAM_FILE_OPERATIONS, startTime);
+            return;
+        }
+
+        try {
+            // The stream outlives this handler; the service completes the request when it terminates
             streamFileOperationsService.streamFileOperations(model, responseObserver, startTime);
         } catch (Exception e) {
             log.error("Error processing streamFileOperations", e);
@@ -77,17 +117,14 @@ public class FileProcessingServiceImpl extends FileProcessingServiceImplBase {
                             .withCause(e)
                             .asRuntimeException()
             );
-        } finally {
-            processingMetrics.decrementActiveRequests();
-            processingMetrics.recordRequestCompletion(System.currentTimeMillis() - startTime);
-            log.info("Current Metrics: {}", processingMetrics);
+            completeRequest(STREAM_FILE_OPERATIONS, startTime);
         }
     }
 
 
     @Override
     public StreamObserver<FileUploadRequest> uploadFiles(StreamObserver<FileProcessingSummary> responseObserver) {
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
         processingMetrics.incrementActiveRequests();
 
         try {
@@ -96,17 +133,13 @@ public class FileProcessingServiceImpl extends FileProcessingServiceImplBase {
                     () -> {
                     }, // onSuccess, optional extra processing
                     processingMetrics::incrementFailedRequests,  // onFailure
-                    () -> { // onCompletion
-                        processingMetrics.decrementActiveRequests();
-                        processingMetrics.recordRequestCompletion(System.currentTimeMillis() - startTime);
-                        log.info("Current Metrics: {}", processingMetrics);
-                    }
+                    () -> completeRequest(UPLOAD_FILES, startTime) // onCompletion
             );
         } catch (Exception e) {
             log.error("Error handling uploadFiles", e);
             processingMetrics.incrementFailedRequests();
             processingMetrics.decrementActiveRequests();
-            processingMetrics.recordRequestCompletion(System.currentTimeMillis() - startTime);
+            processingMetrics.recordRequestCompletion(UPLOAD_FILES, System.nanoTime() - startTime);
             // Notify the client about the failure
             responseObserver.onError(
                     Status.INTERNAL
@@ -121,14 +154,14 @@ public class FileProcessingServiceImpl extends FileProcessingServiceImplBase {
 
     @Override
     public StreamObserver<FileUploadRequest> liveFileProcessing(StreamObserver<FileOperationResult> responseObserver) {
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
         processingMetrics.incrementActiveRequests();
         processingMetrics.incrementActiveTasks();
 
         try {
             StreamObserver<FileUploadRequest> observer = liveFileProcessingService.liveFileProcessing(responseObserver);
             if (observer != null) {
-                processingMetrics.recordTaskCompletion(System.currentTimeMillis() - startTime);
+                processingMetrics.recordTaskCompletion(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
                 return observer;
             }
             return null;
@@ -142,17 +175,108 @@ public class FileProcessingServiceImpl extends FileProcessingServiceImplBase {
                             .withCause(e)
                             .asRuntimeException()
             );
+            // The stream never started, so it terminates here; otherwise the service records it on completion
+            processingMetrics.recordRequestCompletion(LIVE_FILE_PROCESSING, System.nanoTime() - startTime);
             return null;
         } finally {
             processingMetrics.decrementActiveRequests();
             processingMetrics.decrementActiveTasks();
-            processingMetrics.recordRequestCompletion(System.currentTimeMillis() - startTime);
             log.info("Current Metrics: {}", processingMetrics);
         }
     }
 
+    @Override
+    public StreamObserver<FileChunkUploadRequest> uploadFileChunks(StreamObserver<FileProcessingSummary> responseObserver) {
+        long startTime = System.nanoTime();
+        processingMetrics.incrementActiveRequests();
+
+        try {
+            return uploadFilesService.uploadFileChunks(
+                    responseObserver,
+                    () -> {
+                    }, // onSuccess, optional extra processing
+                    processingMetrics::incrementFailedRequests,  // onFailure
+                    () -> completeRequest(UPLOAD_FILE_CHUNKS, startTime) // onCompletion
+            );
+        } catch (Exception e) {
+            log.error("Error handling uploadFileChunks", e);
+            processingMetrics.incrementFailedRequests();
+            processingMetrics.decrementActiveRequests();
+            processingMetrics.recordRequestCompletion(UPLOAD_FILE_CHUNKS, System.nanoTime() - startTime);
+            responseObserver.onError(
+                    Status.INTERNAL
+                            .withDescription("Chunked upload failed: " + e.getMessage())
+                            .withCause(e)
+                            .asRuntimeException()
+            );
+
+            return getNoOpObserver();
+        }
+    }
+
+    @Override
+    public StreamObserver<FileChunkUploadRequest> liveFileChunkProcessing(StreamObserver<FileOperationResult> responseObserver) {
+        long startTime = System.nanoTime();
+        processingMetrics.incrementActiveRequests();
+
+        try {
+            return liveFileProcessingService.liveFileChunkProcessing(responseObserver);
+        } catch (Exception e) {
+            log.error("Error initializing live chunked file processing", e);
+            processingMetrics.incrementFailedRequests();
+            responseObserver.onError(
+                    Status.INTERNAL
+                            .withDescription("Live chunked file processing failed: " + e.getMessage())
+                            .withCause(e)
+                            .asRuntimeException()
+            );
+            processingMetrics.recordRequestCompletion(LIVE_FILE_CHUNK_PROCESSING, System.nanoTime() - startTime);
+            return getNoOpObserver();
+        } finally {
+            processingMetrics.decrementActiveRequests();
+        }
+    }
+
     // Helpers
 
+    /**
+     * Reject a request that cannot be converted, such as one with a malformed operation parameter.
+     */
+    private void rejectInvalidRequest(StreamObserver<?> responseObserver, IllegalArgumentException e) {
+        log.warn("Rejecting invalid request: {}", e.getMessage());
+        processingMetrics.incrementFailedRequests();
+        responseObserver.onError(
+                Status.INVALID_ARGUMENT
+                        .withDescription("Invalid request: " + e.getMessage())
+                        .withCause(e)
+                        .asRuntimeException()
+        );
+    }
+
+    private void failProcessFile(StreamObserver<FileProcessingSummary> responseObserver, Throwable e) {
+        log.error("Error processing file workflow", e);
+        processingMetrics.incrementFailedRequests();
+        try {
+            responseObserver.onError(
+                    Status.INTERNAL
+                            .withDescription("File processing failed: " + e.getMessage())
+                            .withCause(e)
+                            .asRuntimeException()
+            );
+        } catch (Exception alreadyClosed) {
+            log.warn("Could not report processing failure to client: {}", alreadyClosed.getMessage());
+        }
+    }
+
+    /**
+     * Record the end of a call started at {@code startTime}, taken from {@link System#nanoTime()}.
+     */
+    private void completeRequest(String method, long startTime) {
+        processingMetrics.decrementActiveRequests();
+        processingMetrics.recordRequestCompletion(method, System.nanoTime() - startTime);
+        log.info("Current Metrics: {}", processingMetrics);
+    }
+
     private <T> StreamObserver<T> getNoOpObserver() {
         return new StreamObserver<>() {
             @Override public void onNext(T value) {}
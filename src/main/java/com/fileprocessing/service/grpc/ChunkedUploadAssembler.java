@@ -0,0 +1,141 @@
+package com.fileprocessing.service.grpc;
+
+import com.fileprocessing.FileSpec.FileChunk;
+import com.fileprocessing.FileSpec.FileChunkHeader;
+import com.fileprocessing.FileSpec.FileChunkUploadRequest;
+import com.fileprocessing.model.FileModel;
+import com.fileprocessing.model.FileUploadRequestModel;
+import com.fileprocessing.util.FileOperations;
+import com.google.protobuf.ByteString;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Reassembles files sent through the chunked upload RPCs.
+ * <p>
+ *  A stream carries one file at a time: a {@link FileChunkHeader} followed by {@link FileChunk}s in
+ *  offset order until {@code size_bytes} have been received. Received chunks are kept as they are and
+ *  concatenated without copying, so memory grows only with the bytes that actually arrived; the declared
+ *  size is an upper bound, never an allocation. Each chunk is hashed on arrival, so the checksum is
+ *  ready as soon as the last chunk lands.
+ * </p>
+ * <p>
+ *  Not thread-safe. gRPC delivers the inbound messages of a call sequentially, so one assembler
+ *  per call is sufficient.
+ * </p>
+ */
+final class ChunkedUploadAssembler {
+
+    private FileChunkHeader header;
+    private ByteString content;
+    private long received;
+    private MessageDigest digest;
+
+    /**
+     * Consumes the next message of the stream.
+     *
+     * @param message the header or content chunk received from the client
+     * @return the completed upload if this message finished a file, otherwise empty
+     * @throws IllegalArgumentException if the message is malformed or does not match the announced file
+     * @throws IllegalStateException    if the message arrives out of sequence
+     */
+    Optional<FileUploadRequestModel> accept(FileChunkUploadRequest message) {
+        return switch (message.getPayloadCase()) {
+            case HEADER -> startFile(message.getHeader());
+            case CHUNK -> appendChunk(message.getChunk());
+            case PAYLOAD_NOT_SET -> throw new IllegalArgumentException("Chunk upload message has no payload");
+        };
+    }
+
+    /** @return true if a header has been received but its content is not complete yet */
+    boolean hasPendingFile() {
+        return header != null;
+    }
+
+    /** @return the ID of the file currently being assembled, or null if none */
+    String pendingFileId() {
+        return header != null ? header.getFileId() : null;
+    }
+
+    private Optional<FileUploadRequestModel> startFile(FileChunkHeader next) {
+        if (header != null) {
+            throw new IllegalStateException("Received header for file " + next.getFileId()
+                    + " before file " + header.getFileId() + " was complete");
+        }
+        if (next.getSizeBytes() < 0) {
+            throw new IllegalArgumentException("sizeBytes cannot be negative for file " + next.getFileId());
+        }
+        if (next.getSizeBytes() > FileOperations.MAX_FILE_SIZE_BYTES) {
+            throw new IllegalArgumentException("File " + next.getFileId() + " exceeds maximum size of "
+                    + FileOperations.MAX_FILE_SIZE_BYTES + " bytes");
+        }
+
+        header = next;
+        content = ByteString.EMPTY;
+        received = 0;
+        digest = newDigest();
+        return completeIfDone();
+    }
+
+    private Optional<FileUploadRequestModel> appendChunk(FileChunk chunk) {
+        if (header == null) {
+            throw new IllegalStateException("Received content chunk without a preceding header");
+        }
+        if (chunk.getOffset() != received) {
+            throw new IllegalArgumentException("Out-of-order chunk for file " + header.getFileId()
+                    + ": expected offset " + received + " but got " + chunk.getOffset());
+        }
+
+        ByteString data = chunk.getData();
+        if (data.size() > header.getSizeBytes() - received) {
+            throw new IllegalArgumentException("Chunk at offset " + chunk.getOffset() + " overflows declared size "
+                    + header.getSizeBytes() + " of file " + header.getFileId());
+        }
+
+        for (ByteBuffer segment : data.asReadOnlyByteBufferList()) {
+            digest.update(segment);
+        }
+        content = content.concat(data);
+        received += data.size();
+        return completeIfDone();
+    }
+
+    private Optional<FileUploadRequestModel> completeIfDone() {
+        if (received < header.getSizeBytes()) {
+            return Optional.empty();
+        }
+
+        FileChunkHeader completed = header;
+        ByteString data = content;
+        String checksum = HexFormat.of().formatHex(digest.digest());
+        header = null;
+        content = null;
+        digest = null;
+
+        if (!completed.getSha256().isEmpty() && !completed.getSha256().equalsIgnoreCase(checksum)) {
+            throw new IllegalArgumentException("Checksum mismatch for file " + completed.getFileId()
+                    + ": expected " + completed.getSha256() + " but received " + checksum);
+        }
+
+        FileModel file = FileModel.builder()
+                .fileId(completed.getFileId())
+                .fileName(completed.getFileName())
+                .data(data)
+                .fileType(completed.getFileType())
+                .sizeBytes(completed.getSizeBytes())
+                .build();
+        return Optional.of(new FileUploadRequestModel(file, completed.getOperationsList()));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.fileprocessing.service.grpc;
+
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Manual inbound flow control for a client-streaming call.
+ * <p>
+ *  Automatic requests are disabled and the next message is only requested once the previous one has
+ *  been handled and fewer than {@code window} files are in flight. A fast client is therefore held
+ *  back by HTTP/2 flow control instead of piling up work on the server.
+ * </p>
+ * <p>
+ *  It also defers completion of the call: once the client half-closes, the completion action runs
+ *  only after the last in-flight file has finished, so no results are sent after the response
+ *  stream has been completed.
+ * </p>
+ * <p>Thread-safe; files finish on pool threads while messages arrive on the transport thread.</p>
+ */
+@Slf4j
+final class InboundFlowControl {
+
+    private final ServerCallStreamObserver<?> call;
+    private final int window;
+
+    private int inFlight;
+    private boolean paused;
+    private Runnable onDrained;
+
+    private InboundFlowControl(ServerCallStreamObserver<?> call, int window) {
+        this.call = call;
+        this.window = window;
+    }
+
+    /**
+     * Takes over inbound flow control of the call behind the given response observer and requests the
+     * first message. Must be called before the call handler returns.
+     *
+     * @param responseObserver the response observer of the call; flow control is a no-op unless it is
+     *                         a {@link ServerCallStreamObserver}
+     * @param window           the maximum number of files in flight; must be positive
+     */
+    static InboundFlowControl attach(StreamObserver<?> responseObserver, int window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("window must be positive");
+        }
+        ServerCallStreamObserver<?> call = responseObserver instanceof ServerCallStreamObserver<?> serverCall
+                ? serverCall
+                : null;
+        InboundFlowControl flowControl = new InboundFlowControl(call, window);
+        if (call != null) {
+            call.disableAutoRequest();
+            call.request(1);
+        }
+        return flowControl;
+    }
+
+    /**
+     * Signals that processing of a file is about to start. Must be followed by {@link #fileFinished()}.
+     */
+    synchronized void fileStarted() {
+        inFlight++;
+    }
+
+    /**
+     * Signals that a message has been handled, requesting the next one unless the window is full.
+     */
+    synchronized void messageHandled() {
+        if (inFlight < window) {
+            request();
+        } else {
+            paused = true;
+            log.debug("Inbound window of {} files full, pausing reads", window);
+        }
+    }
+
+    /**
+     * Signals that a file started by a previous message has finished processing.
+     */
+    void fileFinished() {
+        Runnable drained = null;
+        synchronized (this) {
+            inFlight--;
+            if (paused && inFlight < window) {
+                paused = false;
+                request();
+            }
+            if (inFlight == 0 && onDrained != null) {
+                drained = onDrained;
+                onDrained = null;
+            }
+        }
+        if (drained != null) {
+            drained.run();
+        }
+    }
+
+    /**
+     * Runs the given action once no file is in flight any more, immediately if none is.
+     */
+    void whenDrained(Runnable action) {
+        synchronized (this) {
+            if (inFlight > 0) {
+                onDrained = action;
+                return;
+            }
+        }
+        action.run();
+    }
+
+    /** @return the number of files currently in flight */
+    synchronized int inFlight() {
+        return inFlight;
+    }
+
+    private void request() {
+        if (call != null && !call.isCancelled()) {
+            call.request(1);
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package com.fileprocessing.service.grpc;
 
+import com.fileprocessing.FileProcessingServiceGrpc;
+import com.fileprocessing.FileSpec.FileChunkUploadRequest;
 import com.fileprocessing.FileSpec.FileUploadRequest;
 import com.fileprocessing.FileSpec.FileOperationResult;
 import com.fileprocessing.concurrency.WorkflowExecutorService;
+import com.fileprocessing.config.StreamProperties;
 import com.fileprocessing.model.FileModel;
 import com.fileprocessing.model.FileProcessingRequestModel;
+import com.fileprocessing.model.FileUploadRequestModel;
 import com.fileprocessing.service.monitoring.FileProcessingMetrics;
 import com.fileprocessing.util.ProtoConverter;
+import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,13 +26,35 @@ import java.util.concurrent.atomic.AtomicBoolean;
 @RequiredArgsConstructor
 public class LiveFileProcessingService {
 
+    // RPC names used to tag request latency metrics
+    private static final String LIVE_FILE_PROCESSING =
+            FileProcessingServiceGrpc.getLiveFileProcessingMethod().getBareMethodName();
+    private static final String LIVE_FILE_CHUNK_PROCESSING =
+            FileProcessingServiceGrpc.getLiveFileChunkProcessingMethod().getBareMethodName();
+
     private final WorkflowExecutorService workflowExecutorService;
     private final FileProcessingMetrics processingMetrics;
+    private final StreamProperties streamProperties;
 
+    /**
+     * Processes each incoming file as soon as it arrives and streams its results back.
+     * <p>
+     *  Inbound messages are pulled with manual flow control: at most
+     *  {@link StreamProperties#getMaxInFlightFiles()} files of the stream are processed at once, and the
+     *  response stream is completed only after the last of them has delivered its results.
+     * </p>
+     * <p>
+     *  Results of all files of the stream, as well as completion and errors, are written by a single
+     *  {@link SerializedStreamWriter}, so pool threads never call the response observer concurrently.
+     * </p>
+     */
     public StreamObserver<FileUploadRequest> liveFileProcessing(StreamObserver<FileOperationResult> responseObserver) {
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
         processingMetrics.incrementActiveRequests();
         AtomicBoolean completedOrErrored = new AtomicBoolean(false); // final reference
+        SerializedStreamWriter<FileOperationResult> writer = new SerializedStreamWriter<>(responseObserver);
+        InboundFlowControl flowControl =
+                InboundFlowControl.attach(responseObserver, streamProperties.getMaxInFlightFiles());
 
         return new StreamObserver<>() {
 
@@ -37,34 +64,14 @@ public class LiveFileProcessingService {
 
                 try {
                     FileModel file = ProtoConverter.toInternalFileModel(request.getFile());
-                    List<com.fileprocessing.FileSpec.OperationType> operations =
-                            request.getOperationsList().isEmpty()
-                                    ? List.of(com.fileprocessing.FileSpec.OperationType.VALIDATE)
-                                    : request.getOperationsList();
-
-                    FileProcessingRequestModel requestModel = new FileProcessingRequestModel(
-                            List.of(file),
-                            operations,
-                            Collections.emptyMap()
-                    );
-
-                    workflowExecutorService.processWorkflowStreamed(
-                            requestModel,
-                            resultModel -> {
-                                try {
-                                    FileOperationResult protoResult = ProtoConverter.toProto(resultModel);
-                                    responseObserver.onNext(protoResult);
-                                } catch (Exception e) {
-                                    log.error("Error sending result to client for file {}", file.fileId(), e);
-                                }
-                            }
-                    );
-
+                    processFile(new FileUploadRequestModel(file, request.getOperationsList()), writer, flowControl);
+                    flowControl.messageHandled();
                 } catch (Exception e) {
                     log.error("Error processing incoming file {}", request.getFile().getFileId(), e);
                     processingMetrics.incrementFailedRequests();
-                    responseObserver.onError(e);
                     completedOrErrored.set(true);
+                    writer.error(e);
+                    endStream(LIVE_FILE_PROCESSING, startTime);
                 }
             }
 
@@ -74,22 +81,134 @@ public class LiveFileProcessingService {
                 completedOrErrored.set(true);
                 log.error("Client stream errored", t);
                 processingMetrics.incrementFailedRequests();
-                responseObserver.onError(t);
+                writer.error(t);
+                endStream(LIVE_FILE_PROCESSING, startTime);
             }
 
             @Override
             public void onCompleted() {
                 if (completedOrErrored.get()) return;
                 completedOrErrored.set(true);
+                flowControl.whenDrained(() -> completeStream(writer, LIVE_FILE_PROCESSING, startTime));
+            }
+        };
+    }
+
+    /**
+     * Chunked counterpart of {@link #liveFileProcessing}: each file is reassembled from its header and
+     * content chunks as they arrive and is submitted for processing as soon as its last chunk lands.
+     * Chunks are pulled with the same per-stream in-flight window.
+     */
+    public StreamObserver<FileChunkUploadRequest> liveFileChunkProcessing(StreamObserver<FileOperationResult> responseObserver) {
+        long startTime = System.nanoTime();
+        processingMetrics.incrementActiveRequests();
+        AtomicBoolean completedOrErrored = new AtomicBoolean(false);
+        ChunkedUploadAssembler assembler = new ChunkedUploadAssembler();
+        SerializedStreamWriter<FileOperationResult> writer = new SerializedStreamWriter<>(responseObserver);
+        InboundFlowControl flowControl =
+                InboundFlowControl.attach(responseObserver, streamProperties.getMaxInFlightFiles());
+
+        return new StreamObserver<>() {
+
+            @Override
+            public void onNext(FileChunkUploadRequest request) {
+                if (completedOrErrored.get()) return;
 
                 try {
-                    responseObserver.onCompleted();
-                } finally {
-                    processingMetrics.decrementActiveRequests();
-                    processingMetrics.recordRequestCompletion(System.currentTimeMillis() - startTime);
-                    log.info("Current Metrics: {}", processingMetrics);
+                    assembler.accept(request).ifPresent(upload -> processFile(upload, writer, flowControl));
+                    flowControl.messageHandled();
+                } catch (Exception e) {
+                    log.error("Error assembling incoming file chunk", e);
+                    processingMetrics.incrementFailedRequests();
+                    completedOrErrored.set(true);
+                    writer.error(
+                            Status.INVALID_ARGUMENT
+                                    .withDescription("Invalid file data: " + e.getMessage())
+                                    .withCause(e)
+                                    .asRuntimeException()
+                    );
+                    endStream(LIVE_FILE_CHUNK_PROCESSING, startTime);
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                if (completedOrErrored.get()) return;
+                completedOrErrored.set(true);
+                log.error("Client chunk stream errored", t);
+                processingMetrics.incrementFailedRequests();
+                writer.error(t);
+                endStream(LIVE_FILE_CHUNK_PROCESSING, startTime);
+            }
+
+            @Override
+            public void onCompleted() {
+                if (completedOrErrored.get()) return;
+                completedOrErrored.set(true);
+
+                if (assembler.hasPendingFile()) {
+                    log.error("Chunk stream completed before file {} was complete", assembler.pendingFileId());
+                    processingMetrics.incrementFailedRequests();
+                    writer.error(
+                            Status.INVALID_ARGUMENT
+                                    .withDescription("Upload ended before file " + assembler.pendingFileId() + " was complete")
+                                    .asRuntimeException()
+                    );
+                    endStream(LIVE_FILE_CHUNK_PROCESSING, startTime);
+                    return;
                 }
+                flowControl.whenDrained(() -> completeStream(writer, LIVE_FILE_CHUNK_PROCESSING, startTime));
             }
         };
     }
+
+    private void processFile(FileUploadRequestModel upload, SerializedStreamWriter<FileOperationResult> writer,
+                             InboundFlowControl flowControl) {
+        FileModel file = upload.file();
+        List<com.fileprocessing.FileSpec.OperationType> operations =
+                upload.operations().isEmpty()
+                        ? List.of(com.fileprocessing.FileSpec.OperationType.VALIDATE)
+                        : upload.operations();
+
+        FileProcessingRequestModel requestModel = new FileProcessingRequestModel(
+                List.of(file),
+                operations,
+                Collections.emptyMap()
+        );
+
+        flowControl.fileStarted();
+        try {
+            workflowExecutorService.processWorkflowStreamed(
+                    requestModel,
+                    resultModel -> {
+                        try {
+                            writer.emit(ProtoConverter.toProto(resultModel));
+                        } catch (Exception e) {
+                            log.error("Error sending result to client for file {}", file.fileId(), e);
+                        }
+                    }
+            ).whenComplete((ignored, ex) -> flowControl.fileFinished());
+        } catch (RuntimeException e) {
+            flowControl.fileFinished();
+            throw e;
+        }
+    }
+
+    private void completeStream(SerializedStreamWriter<FileOperationResult> writer, String method, long startTime) {
+        try {
+            writer.complete();
+        } finally {
+            endStream(method, startTime);
+        }
+    }
+
+    /**
+     * Record the end of a stream started at {@code startTime}, taken from {@link System#nanoTime()}.
+     * Called exactly once per stream, on whichever path terminates it.
+     */
+    private void endStream(String method, long startTime) {
+        processingMetrics.decrementActiveRequests();
+        processingMetrics.recordRequestCompletion(method, System.nanoTime() - startTime);
+        log.info("Current Metrics: {}", processingMetrics);
+    }
 }
@@ -0,0 +1,130 @@
+package com.fileprocessing.service.grpc;
+
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Readiness-aware delivery of response messages on a server-streaming call.
+ * <p>
+ *  Messages are only written while the transport reports {@link ServerCallStreamObserver#isReady()};
+ *  otherwise they wait in a buffer and are flushed from the call's on-ready handler. Producers are
+ *  expected to check {@link #isWritable()} before starting more work and to resume from the
+ *  {@link #onWritable(Runnable) writable callback}.
+ * </p>
+ * <p>
+ *  The capacity is a soft limit: it only stops new work from being started. {@link #offer} never blocks or
+ *  rejects, because the producers are pool threads finishing work that has already started. The buffer can
+ *  therefore hold up to {@code capacity + in-flight work × messages per unit of work}, e.g.
+ *  {@code outboundBufferSize + maxInFlightFiles × operations per file} for StreamFileOperations.
+ * </p>
+ * <p>
+ *  Observers that are not server call observers (e.g. in tests) are treated as always ready.
+ * </p>
+ * <p>Thread-safe; messages may be offered from any pool thread.</p>
+ */
+@Slf4j
+final class OutboundResultBuffer<T> {
+
+    private final StreamObserver<T> observer;
+    private final ServerCallStreamObserver<T> call;
+    private final int capacity;
+    private final Deque<T> buffer = new ArrayDeque<>();
+
+    private volatile Runnable onWritable = () -> {
+    };
+    private boolean completionPending;
+    private boolean completed;
+
+    private OutboundResultBuffer(StreamObserver<T> observer, int capacity) {
+        this.observer = observer;
+        this.call = observer instanceof ServerCallStreamObserver<T> serverCall ? serverCall : null;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Wraps the response observer of a call and installs its on-ready handler.
+     * Must be called before the call handler returns.
+     *
+     * @param observer the response observer of the call
+     * @param capacity the number of buffered messages at which the buffer reports not writable; must be positive
+     */
+    static <T> OutboundResultBuffer<T> attach(StreamObserver<T> observer, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        OutboundResultBuffer<T> buffer = new OutboundResultBuffer<>(observer, capacity);
+        if (buffer.call != null) {
+            buffer.call.setOnReadyHandler(buffer::onReady);
+        }
+        return buffer;
+    }
+
+    /**
+     * Sets the callback invoked when the buffer becomes writable again after the transport was not ready.
+     */
+    void onWritable(Runnable callback) {
+        this.onWritable = callback;
+    }
+
+    /**
+     * Writes the message if the transport is ready, otherwise buffers it, even past the capacity.
+     * Messages offered after completion are dropped.
+     */
+    synchronized void offer(T message) {
+        if (completed || completionPending) {
+            log.debug("Dropping message offered after completion");
+            return;
+        }
+        buffer.addLast(message);
+        drain();
+    }
+
+    /**
+     * @return true if the transport is ready and the buffer has room, i.e. producers may start more work
+     */
+    synchronized boolean isWritable() {
+        return !completed && buffer.size() < capacity && isReady();
+    }
+
+    /** @return the number of messages waiting for the transport */
+    synchronized int buffered() {
+        return buffer.size();
+    }
+
+    /**
+     * Completes the call once every buffered message has been written.
+     */
+    synchronized void complete() {
+        completionPending = true;
+        drain();
+    }
+
+    private void onReady() {
+        boolean writable;
+        synchronized (this) {
+            drain();
+            writable = isWritable();
+        }
+        if (writable) {
+            onWritable.run();
+        }
+    }
+
+    private void drain() {
+        while (!buffer.isEmpty() && isReady()) {
+            observer.onNext(buffer.pollFirst());
+        }
+        if (completionPending && !completed && buffer.isEmpty()) {
+            completed = true;
+            observer.onCompleted();
+        }
+    }
+
+    private boolean isReady() {
+        return call == null || (call.isReady() && !call.isCancelled());
+    }
+}
@@ -7,6 +7,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Service for handling unary file processing requests (gRPC ProcessFile).
  *
@@ -29,4 +31,14 @@ public class ProcessFileService {
     public FileProcessingSummaryModel processFiles(FileProcessingRequestModel requestModel) {
         return workflowExecutorService.processWorkflow(requestModel);
     }
+
+    /**
+     * Processes the files in the given request model without blocking the caller.
+     *
+     * @param requestModel Internal request containing files and operations
+     * @return Future completed with the summary of processing results once every operation has finished
+     */
+    public CompletableFuture<FileProcessingSummaryModel> processFilesAsync(FileProcessingRequestModel requestModel) {
+        return workflowExecutorService.processWorkflowAsync(requestModel);
+    }
 }
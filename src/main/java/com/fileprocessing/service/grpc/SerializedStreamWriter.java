@@ -0,0 +1,115 @@
+package com.fileprocessing.service.grpc;
+
+import io.grpc.stub.StreamObserver;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single-writer delivery of response messages shared by many producer threads.
+ * <p>
+ *  Producers hand messages off through a lock-free multi-producer queue. Whichever producer finds the
+ *  writer idle becomes the drainer and writes everything queued, including messages enqueued by
+ *  other producers while it is writing, so a burst of results is flushed in one pass while the other
+ *  producers return immediately instead of contending for a lock on the observer.
+ * </p>
+ * <p>
+ *  Completion and errors go through the same queue: {@link #complete()} takes effect after every
+ *  message emitted before it, and nothing is written after the stream has terminated.
+ * </p>
+ * <p>Thread-safe.</p>
+ */
+@Slf4j
+final class SerializedStreamWriter<T> {
+
+    private final StreamObserver<T> observer;
+    private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger wip = new AtomicInteger(0);
+
+    private volatile boolean terminationRequested;
+    private volatile Throwable error;
+    /** Only accessed by the current drainer. */
+    private boolean terminated;
+
+    SerializedStreamWriter(StreamObserver<T> observer) {
+        this.observer = observer;
+    }
+
+    /**
+     * Queues a message for delivery. Messages emitted after termination was requested are dropped.
+     */
+    void emit(T message) {
+        if (terminationRequested) {
+            log.debug("Dropping message emitted after stream termination");
+            return;
+        }
+        queue.offer(message);
+        drain();
+    }
+
+    /**
+     * Completes the stream once every previously emitted message has been written.
+     */
+    void complete() {
+        terminationRequested = true;
+        drain();
+    }
+
+    /**
+     * Terminates the stream with the given error; messages still queued are discarded.
+     */
+    void error(Throwable t) {
+        error = t;
+        terminationRequested = true;
+        drain();
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            if (!terminated) {
+                writeQueued();
+                if (terminationRequested && (error != null || queue.isEmpty())) {
+                    terminate();
+                }
+            } else {
+                queue.clear();
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void writeQueued() {
+        T next;
+        while (error == null && (next = queue.poll()) != null) {
+            try {
+                observer.onNext(next);
+            } catch (RuntimeException e) {
+                // The call is gone (e.g. cancelled by the client); nothing else can be written
+                log.warn("Failed to write to stream, dropping remaining messages: {}", e.getMessage());
+                terminated = true;
+                queue.clear();
+                return;
+            }
+        }
+    }
+
+    private void terminate() {
+        terminated = true;
+        queue.clear();
+        try {
+            if (error != null) {
+                observer.onError(error);
+            } else {
+                observer.onCompleted();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to terminate stream: {}", e.getMessage());
+        }
+    }
+}
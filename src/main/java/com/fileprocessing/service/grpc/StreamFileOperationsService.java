@@ -1,7 +1,11 @@
 package com.fileprocessing.service.grpc;
 
+import com.fileprocessing.FileProcessingServiceGrpc;
 import com.fileprocessing.FileSpec.FileOperationResult;
+import com.fileprocessing.FileSpec.OperationType;
 import com.fileprocessing.concurrency.WorkflowExecutorService;
+import com.fileprocessing.config.StreamProperties;
+import com.fileprocessing.model.FileModel;
 import com.fileprocessing.model.FileProcessingRequestModel;
 import com.fileprocessing.service.monitoring.FileProcessingMetrics;
 import com.fileprocessing.util.ProtoConverter;
@@ -11,6 +15,12 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Service for handling server-streaming gRPC file operations.
  * <p>
@@ -28,20 +38,31 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class StreamFileOperationsService {
 
+    private static final String STREAM_FILE_OPERATIONS =
+            FileProcessingServiceGrpc.getStreamFileOperationsMethod().getBareMethodName();
+
     private final WorkflowExecutorService workflowExecutorService;
     private final FileProcessingMetrics processingMetrics;
+    private final StreamProperties streamProperties;
 
     /**
      * Streams file operation results to the client in real-time.
      * <p>
-     * Each file in the request is processed concurrently. As soon as an operation
+     * Files in the request are processed concurrently. As soon as an operation
      * completes, its result is converted to a proto object and pushed to the client
      * using the provided {@link StreamObserver}.
      * </p>
      *
+     * <p><b>Backpressure:</b> Results are written only while the transport is ready and are
+     * buffered otherwise. New files are started only while fewer than
+     * {@link StreamProperties#getMaxInFlightFiles()} are in flight and the buffer holds fewer than
+     * {@link StreamProperties#getOutboundBufferSize()} results; submission resumes from the call's
+     * on-ready handler once a slow client catches up.</p>
+     *
      * <p><b>Completion:</b></p>
      * <ul>
-     *     <li>If all operations succeed, the observer is completed normally.</li>
+     *     <li>If all operations succeed, the observer is completed normally once every buffered
+     *     result has been written.</li>
      *     <li>If any exception occurs during processing, the observer receives an
      *     INTERNAL gRPC error with details.</li>
      * </ul>
@@ -51,37 +72,107 @@ public class StreamFileOperationsService {
      *
      * @param fileProcessingRequestModel the internal request model containing files and operations
      * @param responseObserver           the gRPC stream observer to deliver each {@link FileOperationResult}
-     * @param startTime                  the request start timestamp used for metrics calculation
+     * @param startTime                  the request start, from {@link System#nanoTime()}; the request duration
+     *                                   is recorded once the stream terminates
      */
     public void streamFileOperations(FileProcessingRequestModel fileProcessingRequestModel,
                                      StreamObserver<FileOperationResult> responseObserver,
                                      long startTime) {
+        OutboundResultBuffer<FileOperationResult> outbound =
+                OutboundResultBuffer.attach(responseObserver, streamProperties.getOutboundBufferSize());
+        StreamSession session = new StreamSession(fileProcessingRequestModel, responseObserver, outbound, startTime);
+        outbound.onWritable(session::submitMore);
+        session.submitMore();
+    }
+
+    /**
+     * Submission state of one streaming call. {@link #submitMore()} may be triggered concurrently by
+     * file completions and the on-ready handler; a work-in-progress counter lets a single thread run
+     * the submission loop at a time without blocking the others.
+     */
+    private final class StreamSession {
+
+        private final FileProcessingRequestModel request;
+        private final StreamObserver<FileOperationResult> responseObserver;
+        private final OutboundResultBuffer<FileOperationResult> outbound;
+        private final long startTime;
+        private final Iterator<FileModel> remaining;
+        private final AtomicInteger wip = new AtomicInteger(0);
+        private final AtomicInteger inFlight = new AtomicInteger(0);
+        private final AtomicBoolean finished = new AtomicBoolean(false);
+        private volatile Throwable failure;
+
+        private StreamSession(FileProcessingRequestModel request,
+                              StreamObserver<FileOperationResult> responseObserver,
+                              OutboundResultBuffer<FileOperationResult> outbound,
+                              long startTime) {
+            this.request = request;
+            this.responseObserver = responseObserver;
+            this.outbound = outbound;
+            this.startTime = startTime;
+            this.remaining = request.files().iterator();
+        }
 
-        workflowExecutorService.processWorkflowStreamed(
-                fileProcessingRequestModel,
-                fileProcessingResponseModel -> {
-                    FileOperationResult protoResult = ProtoConverter.toProto(fileProcessingResponseModel);
-                    responseObserver.onNext(protoResult);
+        void submitMore() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                while (failure == null && remaining.hasNext()
+                        && inFlight.get() < streamProperties.getMaxInFlightFiles()
+                        && outbound.isWritable()) {
+                    submit(remaining.next());
                 }
-        ).whenComplete((ignored, throwable) -> {
-            try {
+                if ((failure != null || !remaining.hasNext()) && inFlight.get() == 0
+                        && finished.compareAndSet(false, true)) {
+                    finish();
+                }
+            } while (wip.decrementAndGet() != 0);
+        }
+
+        private void submit(FileModel file) {
+            inFlight.incrementAndGet();
+            workflowExecutorService.processWorkflowStreamed(
+                    requestFor(file),
+                    resultModel -> outbound.offer(ProtoConverter.toProto(resultModel))
+            ).whenComplete((ignored, throwable) -> {
                 if (throwable != null) {
-                    log.error("Streaming workflow failed", throwable);
+                    failure = throwable;
+                }
+                inFlight.decrementAndGet();
+                submitMore();
+            });
+        }
+
+        private FileProcessingRequestModel requestFor(FileModel file) {
+            List<OperationType> specific = request.fileSpecificOperations().get(file.fileId());
+            return new FileProcessingRequestModel(
+                    List.of(file),
+                    request.defaultOperations(),
+                    specific != null ? Map.of(file.fileId(), specific) : Map.of(),
+                    request.operationParameters()
+            );
+        }
+
+        private void finish() {
+            try {
+                if (failure != null) {
+                    log.error("Streaming workflow failed", failure);
                     processingMetrics.incrementFailedRequests();
                     responseObserver.onError(
                             Status.INTERNAL
-                                    .withDescription("Streaming failed: " + throwable.getMessage())
-                                    .withCause(throwable)
+                                    .withDescription("Streaming failed: " + failure.getMessage())
+                                    .withCause(failure)
                                     .asRuntimeException()
                     );
                 } else {
-                    responseObserver.onCompleted();
+                    outbound.complete();
                 }
             } finally {
                 processingMetrics.decrementActiveRequests();
-//                processingMetrics.addRequestDuration(System.currentTimeMillis() - startTime);
+                processingMetrics.recordRequestCompletion(STREAM_FILE_OPERATIONS, System.nanoTime() - startTime);
                 log.info("Current Metrics: {}", processingMetrics);
             }
-        });
+        }
     }
 }
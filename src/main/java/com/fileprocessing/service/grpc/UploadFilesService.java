@@ -1,8 +1,10 @@
 package com.fileprocessing.service.grpc;
 
+import com.fileprocessing.FileSpec.FileChunkUploadRequest;
 import com.fileprocessing.FileSpec.FileProcessingSummary;
 import com.fileprocessing.FileSpec.FileUploadRequest;
 import com.fileprocessing.FileSpec.OperationType;
+import com.fileprocessing.config.StreamProperties;
 import com.fileprocessing.model.FileModel;
 import com.fileprocessing.model.FileProcessingRequestModel;
 import com.fileprocessing.model.FileProcessingSummaryModel;
@@ -14,17 +16,31 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Service for client-streaming uploads (gRPC UploadFiles and UploadFileChunks).
+ * <p>
+ *  Each file is submitted for processing as soon as it has been received, so processing overlaps with
+ *  the rest of the upload and a file's content can be released once its operations have run. Results
+ *  are folded into a running summary, which is sent once the client has half-closed and the last file
+ *  in flight has finished.
+ * </p>
+ * <p>
+ *  At most {@link StreamProperties#getMaxInFlightFiles()} files of an upload are processed at once;
+ *  beyond that the next message is not requested, bounding the memory held by a large upload.
+ * </p>
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class UploadFilesService {
 
     private final ProcessFileService processFileService;
+    private final StreamProperties streamProperties;
 
     public StreamObserver<FileUploadRequest> uploadFiles(
             StreamObserver<FileProcessingSummary> responseObserver,
@@ -32,7 +48,7 @@ public class UploadFilesService {
             Runnable onFailure,
             Runnable onCompletion) {
 
-        List<FileUploadRequestModel> uploads = new ArrayList<>();
+        UploadSession session = new UploadSession(responseObserver, onSuccess, onFailure, onCompletion);
         boolean[] completedOrErrored = {false};
 
         return new StreamObserver<>() {
@@ -43,18 +59,11 @@ public class UploadFilesService {
                 try {
                     FileModel fileModel = ProtoConverter.toInternalFileModel(fileUploadRequest.getFile());
                     List<OperationType> operations = fileUploadRequest.getOperationsList();
-                    uploads.add(new FileUploadRequestModel(fileModel, operations));
+                    session.process(new FileUploadRequestModel(fileModel, operations));
                 } catch (Exception e) {
                     log.error("Error converting uploaded file", e);
-                    onFailure.run();
                     completedOrErrored[0] = true;
-                    responseObserver.onError(
-                            Status.INVALID_ARGUMENT
-                                    .withDescription("Invalid file data: " + e.getMessage())
-                                    .withCause(e)
-                                    .asRuntimeException()
-                    );
-                    onCompletion.run();
+                    rejectUpload(responseObserver, onFailure, onCompletion, e);
                 }
             }
 
@@ -71,40 +80,207 @@ public class UploadFilesService {
             public void onCompleted() {
                 if (completedOrErrored[0]) return;
                 completedOrErrored[0] = true;
+                session.finish();
+            }
+        };
+    }
 
-                try {
-                    List<FileModel> files = uploads.stream()
-                            .map(FileUploadRequestModel::file)
-                            .toList();
+    /**
+     * Chunked counterpart of {@link #uploadFiles}: each file arrives as a header followed by its content
+     * chunks, which are reassembled as they stream in instead of travelling as one large message.
+     */
+    public StreamObserver<FileChunkUploadRequest> uploadFileChunks(
+            StreamObserver<FileProcessingSummary> responseObserver,
+            Runnable onSuccess,
+            Runnable onFailure,
+            Runnable onCompletion) {
 
-                    Map<String, List<OperationType>> fileOpsMap = new HashMap<>();
-                    for (FileUploadRequestModel req : uploads) {
-                        fileOpsMap.put(req.file().fileId(), req.operations());
-                    }
+        UploadSession session = new UploadSession(responseObserver, onSuccess, onFailure, onCompletion);
+        ChunkedUploadAssembler assembler = new ChunkedUploadAssembler();
+        boolean[] completedOrErrored = {false};
 
-                    FileProcessingRequestModel requestModel =
-                            new FileProcessingRequestModel(files, List.of(), fileOpsMap);
+        return new StreamObserver<>() {
 
-                    FileProcessingSummaryModel summaryModel = processFileService.processFiles(requestModel);
-                    FileProcessingSummary response = ProtoConverter.toProto(summaryModel);
+            @Override
+            public void onNext(FileChunkUploadRequest chunkUploadRequest) {
+                if (completedOrErrored[0]) return;
+                try {
+                    assembler.accept(chunkUploadRequest).ifPresentOrElse(session::process, session::awaitNext);
+                } catch (Exception e) {
+                    log.error("Error assembling uploaded file chunk", e);
+                    completedOrErrored[0] = true;
+                    rejectUpload(responseObserver, onFailure, onCompletion, e);
+                }
+            }
 
-                    onSuccess.run();
+            @Override
+            public void onError(Throwable t) {
+                if (completedOrErrored[0]) return;
+                completedOrErrored[0] = true;
+                log.error("Client cancelled or errored during chunked upload", t);
+                onFailure.run();
+                onCompletion.run();
+            }
 
-                    responseObserver.onNext(response);
-                    responseObserver.onCompleted();
-                } catch (Exception e) {
-                    log.error("Error processing uploaded files", e);
-                    onFailure.run();
-                    responseObserver.onError(
-                            Status.INTERNAL
-                                    .withDescription("Upload processing failed: " + e.getMessage())
-                                    .withCause(e)
-                                    .asRuntimeException()
-                    );
-                } finally {
-                    onCompletion.run();
+            @Override
+            public void onCompleted() {
+                if (completedOrErrored[0]) return;
+                completedOrErrored[0] = true;
+
+                if (assembler.hasPendingFile()) {
+                    rejectUpload(responseObserver, onFailure, onCompletion,
+                            new IllegalStateException("Upload ended before file "
+                                    + assembler.pendingFileId() + " was complete"));
+                    return;
                 }
+                session.finish();
             }
         };
     }
+
+    private void rejectUpload(StreamObserver<FileProcessingSummary> responseObserver,
+                              Runnable onFailure,
+                              Runnable onCompletion,
+                              Exception cause) {
+        onFailure.run();
+        responseObserver.onError(
+                Status.INVALID_ARGUMENT
+                        .withDescription("Invalid file data: " + cause.getMessage())
+                        .withCause(cause)
+                        .asRuntimeException()
+        );
+        onCompletion.run();
+    }
+
+    /**
+     * State of one upload call: the inbound window, the running summary and the first processing
+     * failure, if any. Files finish on pool threads while messages arrive on the transport thread.
+     */
+    private final class UploadSession {
+
+        private final StreamObserver<FileProcessingSummary> responseObserver;
+        private final Runnable onSuccess;
+        private final Runnable onFailure;
+        private final Runnable onCompletion;
+        private final InboundFlowControl flowControl;
+        private final FileProcessingSummaryModel.FileProcessingSummaryModelBuilder summary =
+                FileProcessingSummaryModel.builder();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        /** Running counts, guarded by {@code summary}. */
+        private int totalFiles;
+        private int successfulFiles;
+        private int failedFiles;
+
+        UploadSession(StreamObserver<FileProcessingSummary> responseObserver,
+                      Runnable onSuccess,
+                      Runnable onFailure,
+                      Runnable onCompletion) {
+            this.responseObserver = responseObserver;
+            this.onSuccess = onSuccess;
+            this.onFailure = onFailure;
+            this.onCompletion = onCompletion;
+            this.flowControl = InboundFlowControl.attach(responseObserver, streamProperties.getMaxInFlightFiles());
+        }
+
+        /**
+         * Starts processing of a received file and requests the next message if the window allows.
+         */
+        void process(FileUploadRequestModel upload) {
+            FileModel file = upload.file();
+            FileProcessingRequestModel requestModel = new FileProcessingRequestModel(
+                    List.of(file), List.of(), Map.of(file.fileId(), upload.operations()));
+
+            flowControl.fileStarted();
+            try {
+                processFileService.processFilesAsync(requestModel)
+                        .whenComplete((fileSummary, ex) -> {
+                            try {
+                                if (ex != null) {
+                                    recordFailure(file, ex);
+                                } else {
+                                    record(fileSummary);
+                                }
+                            } finally {
+                                flowControl.fileFinished();
+                            }
+                        });
+            } catch (Exception e) {
+                recordFailure(file, e);
+                flowControl.fileFinished();
+            }
+            flowControl.messageHandled();
+        }
+
+        /**
+         * Requests the next message after one that did not complete a file.
+         */
+        void awaitNext() {
+            flowControl.messageHandled();
+        }
+
+        /**
+         * Sends the summary, or the first failure, once every file in flight has finished.
+         */
+        void finish() {
+            flowControl.whenDrained(this::respond);
+        }
+
+        private void record(FileProcessingSummaryModel fileSummary) {
+            synchronized (summary) {
+                totalFiles++;
+                successfulFiles += fileSummary.successfulFiles();
+                failedFiles += fileSummary.failedFiles();
+                summary.results(fileSummary.results());
+            }
+        }
+
+        private void recordFailure(FileModel file, Throwable ex) {
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            log.error("Error processing uploaded file {}", file.fileId(), cause);
+            failure.compareAndSet(null, cause);
+        }
+
+        private void respond() {
+            try {
+                Throwable cause = failure.get();
+                if (cause != null) {
+                    fail(cause);
+                    return;
+                }
+                FileProcessingSummaryModel summaryModel;
+                synchronized (summary) {
+                    summaryModel = summary
+                            .totalFiles(totalFiles)
+                            .successfulFiles(successfulFiles)
+                            .failedFiles(failedFiles)
+                            .build();
+                }
+                FileProcessingSummary response = ProtoConverter.toProto(summaryModel);
+
+                onSuccess.run();
+
+                responseObserver.onNext(response);
+                responseObserver.onCompleted();
+            } catch (Exception e) {
+                fail(e);
+            } finally {
+                onCompletion.run();
+            }
+        }
+
+        private void fail(Throwable cause) {
+            log.error("Error processing uploaded files", cause);
+            onFailure.run();
+            try {
+                responseObserver.onError(
+                        Status.INTERNAL
+                                .withDescription("Upload processing failed: " + cause.getMessage())
+                                .withCause(cause)
+                                .asRuntimeException()
+                );
+            } catch (Exception alreadyClosed) {
+                log.warn("Could not report upload failure to client: {}", alreadyClosed.getMessage());
+            }
+        }
+    }
 }
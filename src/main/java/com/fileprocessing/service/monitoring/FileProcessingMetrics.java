@@ -1,35 +1,71 @@
 package com.fileprocessing.service.monitoring;
 
+import com.fileprocessing.FileSpec.OperationStatus;
+import com.fileprocessing.FileSpec.OperationType;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import lombok.Getter;
 import lombok.ToString;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Task and request metrics of the service.
+ * <p>
+ *  Besides the running counters and averages, every operation and request is recorded in a latency
+ *  {@link Timer}: {@code fileprocessing.operation.duration} tagged by {@code operation} and {@code status},
+ *  and {@code fileprocessing.request.duration} tagged by gRPC {@code method}. Both publish p50/p95/p99,
+ *  max, a percentile histogram and SLO buckets, exported at {@code /actuator/prometheus}.
+ *  Durations are taken from {@link System#nanoTime()} so that sub-millisecond operations, such as
+ *  VALIDATE or header-only METADATA_EXTRACTION, are not all recorded as zero.
+ * </p>
+ */
 @Service
 @Getter
 public class FileProcessingMetrics {
 
+    static final String OPERATION_TIMER = "fileprocessing.operation.duration";
+    static final String REQUEST_TIMER = "fileprocessing.request.duration";
+
+    /** SLO boundaries shared by the latency timers, from quick validations to large image transforms. */
+    private static final Duration[] LATENCY_SLOS = {
+            Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofMillis(10), Duration.ofMillis(25), Duration.ofMillis(50),
+            Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500), Duration.ofSeconds(1),
+            Duration.ofMillis(2500), Duration.ofSeconds(5), Duration.ofSeconds(10)
+    };
+
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
     private final AtomicInteger activeTasks = new AtomicInteger(0);
     private final AtomicLong totalTaskDurationMillis = new AtomicLong(0);
     private final AtomicInteger completedTasks = new AtomicInteger(0);
     private final AtomicInteger failedTasks = new AtomicInteger(0);
+    private final AtomicInteger skippedTasks = new AtomicInteger(0);
 
     private final AtomicInteger activeRequests = new AtomicInteger(0);
-    private final AtomicLong totalRequestDurationMillis = new AtomicLong(0);
+    private final AtomicLong totalRequestDurationNanos = new AtomicLong(0);
     private final AtomicInteger completedRequests = new AtomicInteger(0);
     private final AtomicInteger failedRequests = new AtomicInteger(0);
 
     public FileProcessingMetrics(MeterRegistry registry) {
+        this.registry = registry;
+
         // Task-level
         Gauge.builder("fileprocessing.tasks.active", activeTasks, AtomicInteger::get).register(registry);
         Gauge.builder("fileprocessing.tasks.completed", completedTasks, AtomicInteger::get).register(registry);
         Gauge.builder("fileprocessing.tasks.failed", failedTasks, AtomicInteger::get).register(registry);
+        Gauge.builder("fileprocessing.tasks.skipped", skippedTasks, AtomicInteger::get).register(registry);
         Gauge.builder("fileprocessing.tasks.avg_duration_ms", this, FileProcessingMetrics::getAverageTaskDurationMillis).register(registry);
 
         // Request-level
@@ -47,6 +83,18 @@ public class FileProcessingMetrics {
         completedTasks.incrementAndGet();
     }
     public void incrementFailedTasks() { failedTasks.incrementAndGet(); }
+    public void incrementSkippedTasks() { skippedTasks.incrementAndGet(); }
+
+    /**
+     * Record the latency of a single file operation, tagged by its type and outcome.
+     *
+     * @param durationNanos elapsed time measured with {@link System#nanoTime()}
+     */
+    public void recordOperation(OperationType operation, OperationStatus status, long durationNanos) {
+        latencyTimer(OPERATION_TIMER, "Duration of a single file operation",
+                Tags.of("operation", operation.name(), "status", status.name()))
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
 
     public long getAverageTaskDurationMillis() {
         int completed = completedTasks.get();
@@ -56,15 +104,35 @@ public class FileProcessingMetrics {
     // ------------ Request methods ------------
     public void incrementActiveRequests() { activeRequests.incrementAndGet(); }
     public void decrementActiveRequests() { if (activeRequests.get() > 0) activeRequests.decrementAndGet(); }
-    public void recordRequestCompletion(long durationMillis) {
-        totalRequestDurationMillis.addAndGet(durationMillis);
+
+    /**
+     * Record a finished gRPC call. Must be called exactly once per call, when it terminates.
+     *
+     * @param durationNanos elapsed time since the call started, measured with {@link System#nanoTime()}
+     */
+    public void recordRequestCompletion(String method, long durationNanos) {
+        totalRequestDurationNanos.addAndGet(durationNanos);
         completedRequests.incrementAndGet();
+        latencyTimer(REQUEST_TIMER, "Duration of a gRPC request", Tags.of("method", method))
+                .record(durationNanos, TimeUnit.NANOSECONDS);
     }
     public void incrementFailedRequests() { failedRequests.incrementAndGet(); }
 
     public long getAverageRequestDurationMillis() {
         int completed = completedRequests.get();
-        return completed == 0 ? 0 : totalRequestDurationMillis.get() / completed;
+        return completed == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalRequestDurationNanos.get() / completed);
+    }
+
+    private Timer latencyTimer(String name, String description, Tags tags) {
+        return timers.computeIfAbsent(name + tags, key -> Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .serviceLevelObjectives(LATENCY_SLOS)
+                .minimumExpectedValue(Duration.ofNanos(100_000))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry));
     }
 
     // ------------ Utility methods ------------
@@ -73,6 +141,7 @@ public class FileProcessingMetrics {
     public int getActiveTasks() { return activeTasks.get(); }
     public int getCompletedTasks() { return completedTasks.get(); }
     public int getFailedTasks() { return failedTasks.get(); }
+    public int getSkippedTasks() { return skippedTasks.get(); }
 
     // Requests
     public int getActiveRequests() { return activeRequests.get(); }
@@ -85,6 +154,7 @@ public class FileProcessingMetrics {
         map.put("activeTasks", getActiveTasks());
         map.put("completedTasks", getCompletedTasks());
         map.put("failedTasks", getFailedTasks());
+        map.put("skippedTasks", getSkippedTasks());
         map.put("averageTaskDurationMillis", getAverageTaskDurationMillis());
         map.put("activeRequests", getActiveRequests());
         map.put("completedRequests", getCompletedRequests());
@@ -97,12 +167,13 @@ public class FileProcessingMetrics {
         activeTasks.set(0);
         completedTasks.set(0);
         failedTasks.set(0);
+        skippedTasks.set(0);
         totalTaskDurationMillis.set(0);
 
         activeRequests.set(0);
         completedRequests.set(0);
         failedRequests.set(0);
-        totalRequestDurationMillis.set(0);
+        totalRequestDurationNanos.set(0);
     }
 
     @Override
@@ -111,6 +182,7 @@ public class FileProcessingMetrics {
                 "activeTasks=" + getActiveTasks() +
                 ", completedTasks=" + getCompletedTasks() +
                 ", failedTasks=" + getFailedTasks() +
+                ", skippedTasks=" + getSkippedTasks() +
                 ", averageTaskDurationMillis=" + getAverageTaskDurationMillis() +
                 ", activeRequests=" + getActiveRequests() +
                 ", completedRequests=" + getCompletedRequests() +
@@ -1,5 +1,6 @@
 package com.fileprocessing.service.monitoring;
 
+import com.fileprocessing.concurrency.OperationClass;
 import com.fileprocessing.concurrency.ThreadPoolManager;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -17,11 +18,26 @@ public class ThreadPoolMetrics {
     @PostConstruct
     public void init() {
         Gauge.builder("fileprocessing.threadpool.active", threadPoolManager, ThreadPoolManager::getActiveCount)
-                .description("Active threads in file processing pool")
+                .description("Active threads in file processing pools")
                 .register(registry);
 
         Gauge.builder("fileprocessing.threadpool.queue", threadPoolManager, ThreadPoolManager::getQueueSize)
-                .description("Queue size in file processing pool")
+                .description("Queue size in file processing pools")
                 .register(registry);
+
+        for (OperationClass operationClass : OperationClass.values()) {
+            String tag = operationClass.name().toLowerCase();
+            Gauge.builder("fileprocessing.threadpool.class.active", threadPoolManager,
+                            manager -> manager.getActiveCount(operationClass))
+                    .description("Active tasks in the pool of an operation class")
+                    .tag("class", tag)
+                    .register(registry);
+
+            Gauge.builder("fileprocessing.threadpool.class.queue", threadPoolManager,
+                            manager -> manager.getQueueSize(operationClass))
+                    .description("Queued tasks in the pool of an operation class")
+                    .tag("class", tag)
+                    .register(registry);
+        }
     }
 }
\ No newline at end of file
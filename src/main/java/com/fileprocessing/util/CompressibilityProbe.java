@@ -0,0 +1,115 @@
+package com.fileprocessing.util;
+
+import com.google.protobuf.ByteString;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Locale;
+import java.util.zip.Deflater;
+
+/**
+ * Cheap estimate of how well content will compress, used to choose a compression mode per file.
+ * <p>
+ *  The order-0 (byte frequency) Shannon entropy is computed over up to {@value #SAMPLES} windows of
+ *  {@value #WINDOW} bytes spread evenly across the content, so the cost is constant regardless of file
+ *  size. Already-compressed data (JPEG, PNG, GIF, zip) is close to 8 bits per byte and gains nothing from
+ *  deflate; text and raw formats are far below.
+ * </p>
+ */
+public final class CompressibilityProbe {
+
+    static final int SAMPLES = 16;
+    static final int WINDOW = 1024;
+
+    /** At or above this many bits per byte, content is stored without compression. */
+    static final double STORE_THRESHOLD = 7.5;
+    /** At or above this many bits per byte (and below {@link #STORE_THRESHOLD}), the fastest level is used. */
+    static final double FAST_THRESHOLD = 6.0;
+
+    private CompressibilityProbe() {
+        // prevent instantiation
+    }
+
+    /**
+     * Compression mode chosen for a file, with its deflate level.
+     */
+    public enum Mode {
+        /** Incompressible content: written as stored deflate blocks, no CPU spent compressing. */
+        STORE(Deflater.NO_COMPRESSION),
+        /** Moderately compressible content: fastest level. */
+        FAST(Deflater.BEST_SPEED),
+        /** Highly compressible content: best ratio. */
+        HIGH(Deflater.BEST_COMPRESSION);
+
+        private final int level;
+
+        Mode(int level) {
+            this.level = level;
+        }
+
+        public int level() {
+            return level;
+        }
+    }
+
+    /**
+     * Result of probing a file.
+     *
+     * @param mode               the chosen compression mode
+     * @param entropyBitsPerByte estimated entropy, 0 to 8
+     * @param sampledBytes       number of bytes inspected
+     */
+    public record Estimate(Mode mode, double entropyBitsPerByte, int sampledBytes) {
+
+        /**
+         * @return a short description for result details, e.g. {@code "mode=STORE entropy=7.98 bits/byte"}
+         */
+        public String describe() {
+            return String.format(Locale.ROOT, "mode=%s entropy=%.2f bits/byte", mode, entropyBitsPerByte);
+        }
+    }
+
+    /**
+     * Estimates the compressibility of the given content.
+     */
+    public static Estimate estimate(@NotNull ByteString content) {
+        int size = content.size();
+        if (size == 0) {
+            return new Estimate(Mode.STORE, 0, 0);
+        }
+
+        int[] counts = new int[256];
+        int sampled = 0;
+        if (size <= SAMPLES * WINDOW) {
+            sampled = count(content, 0, size, counts);
+        } else {
+            long stride = (size - WINDOW) / (SAMPLES - 1);
+            for (int i = 0; i < SAMPLES; i++) {
+                sampled += count(content, (int) (i * stride), WINDOW, counts);
+            }
+        }
+
+        double entropy = entropy(counts, sampled);
+        Mode mode = entropy >= STORE_THRESHOLD ? Mode.STORE
+                : entropy >= FAST_THRESHOLD ? Mode.FAST
+                : Mode.HIGH;
+        return new Estimate(mode, entropy, sampled);
+    }
+
+    private static int count(ByteString content, int offset, int length, int[] counts) {
+        for (int i = offset; i < offset + length; i++) {
+            counts[content.byteAt(i) & 0xff]++;
+        }
+        return length;
+    }
+
+    private static double entropy(int[] counts, int total) {
+        double entropy = 0;
+        for (int count : counts) {
+            if (count > 0) {
+                double p = (double) count / total;
+                entropy -= p * (Math.log(p) / Math.log(2));
+            }
+        }
+        return entropy;
+    }
+}
@@ -0,0 +1,222 @@
+package com.fileprocessing.util;
+
+import com.fileprocessing.model.FileModel;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Deduplicating file store keyed by the SHA-256 of the content.
+ * <p>
+ *  Each distinct content is written once as a blob under {@code <root>/blobs/<xx>/<sha256>}, where
+ *  {@code xx} is the first two hex digits of the digest. Stored files are exposed as references at
+ *  {@code <root>/<type>/<fileId>_<fileName>}: a hard link to the blob where the file system supports it,
+ *  a symbolic link otherwise. Storing bytes that are already present only (re)creates the reference.
+ * </p>
+ * <p>
+ *  Thread-safe without a global lock. Blobs and references are first written under a unique temporary
+ *  name and then atomically renamed into place, so readers never observe partial content and concurrent
+ *  writers of the same name simply replace each other. Only writers of the same digest are coordinated,
+ *  through a striped lock, so identical content arriving concurrently is written once.
+ * </p>
+ */
+@Slf4j
+public final class ContentAddressedStore {
+
+    static final String BLOB_DIR = "blobs";
+    private static final int LOCK_STRIPES = 64;
+
+    private final Path root;
+    private final ReentrantLock[] blobLocks = new ReentrantLock[LOCK_STRIPES];
+
+    /**
+     * @param root the directory holding both blobs and references; created on demand
+     */
+    public ContentAddressedStore(@NotNull Path root) {
+        this.root = Objects.requireNonNull(root, "root cannot be null");
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            blobLocks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Stores the file's content, writing a new blob only if the content is not already present.
+     *
+     * @param file   the file to store
+     * @param sha256 the hex SHA-256 digest of the file's content
+     * @return the path of the reference created for the file
+     * @throws IOException              if the blob or the reference cannot be written
+     * @throws IllegalArgumentException if the file's type, id or name would place the reference outside the store
+     */
+    public Path store(@NotNull FileModel file, @NotNull String sha256) throws IOException {
+        Path reference = referencePath(file, "");
+        Path blob = blobPath(sha256);
+        writeBlob(file, sha256, blob);
+        return link(reference, blob);
+    }
+
+    /**
+     * Stores content produced while it is written, such as the output of a compressor, in a single pass.
+     * The content is digested as it is written to a temporary file next to the blobs, which then becomes
+     * the blob unless identical content is already present.
+     *
+     * @param file      the file the content is derived from, which names the reference
+     * @param extension suffix appended to the reference name, such as {@code ".gz"}
+     * @param writer    writes the content to the stream it is given
+     * @return the path of the reference created for the content
+     * @throws IOException              if the content, the blob or the reference cannot be written
+     * @throws IllegalArgumentException if the file's type, id or name would place the reference outside the store
+     */
+    public Path store(@NotNull FileModel file, @NotNull String extension, @NotNull ContentWriter writer)
+            throws IOException {
+        Path reference = referencePath(file, extension);
+        Path blobDir = root.resolve(BLOB_DIR);
+        Files.createDirectories(blobDir);
+        Path temp = Files.createTempFile(blobDir, "stream", ".tmp");
+        try {
+            MessageDigest digest = newDigest();
+            try (OutputStream os = new DigestOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp), 64 * 1024), digest)) {
+                writer.writeTo(os);
+            }
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            Path blob = blobPath(sha256);
+
+            ReentrantLock lock = lockOf(sha256);
+            lock.lock();
+            try {
+                if (Files.exists(blob)) {
+                    log.info("Content derived from {} already stored as blob {}", file.fileName(), sha256);
+                } else {
+                    Files.createDirectories(blob.getParent());
+                    moveIntoPlace(temp, blob);
+                }
+            } finally {
+                lock.unlock();
+            }
+            return link(reference, blob);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Writes content to a stream; the stream is closed by the store.
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * @return the path of the blob holding the content with the given digest, whether or not it exists
+     */
+    public Path blobPath(@NotNull String sha256) {
+        return root.resolve(BLOB_DIR).resolve(sha256.substring(0, 2)).resolve(sha256);
+    }
+
+    /**
+     * Resolves a plain file name, such as one built from a client-supplied file id, in the directory.
+     *
+     * @throws IllegalArgumentException if the name contains a path separator or resolves outside the directory
+     */
+    static Path resolveName(Path directory, String name) {
+        Path normalized = directory.normalize();
+        Path resolved = normalized.resolve(name).normalize();
+        if (name.isEmpty() || name.contains("/") || name.contains("\\")
+                || !resolved.startsWith(normalized) || resolved.equals(normalized)) {
+            throw new IllegalArgumentException("Invalid file name component: " + name);
+        }
+        return resolved;
+    }
+
+    private Path referencePath(FileModel file, String extension) {
+        Path typeDir = resolveName(root, file.fileType().toLowerCase());
+        return resolveName(typeDir, file.fileId() + "_" + file.fileName() + extension);
+    }
+
+    private ReentrantLock lockOf(String sha256) {
+        return blobLocks[Math.floorMod(sha256.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void writeBlob(FileModel file, String sha256, Path blob) throws IOException {
+        ReentrantLock lock = lockOf(sha256);
+        lock.lock();
+        try {
+            if (Files.exists(blob)) {
+                log.info("Content of {} already stored as blob {}", file.fileName(), sha256);
+                return;
+            }
+
+            Files.createDirectories(blob.getParent());
+            Path temp = Files.createTempFile(blob.getParent(), sha256, ".tmp");
+            try {
+                try (OutputStream os = Files.newOutputStream(temp)) {
+                    file.data().writeTo(os);
+                }
+                moveIntoPlace(temp, blob);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Points the reference at the blob, creating its directory on demand.
+     *
+     * @return the reference
+     */
+    private static Path link(Path reference, Path blob) throws IOException {
+        Files.createDirectories(reference.getParent());
+        if (Files.exists(reference) && Files.isSameFile(reference, blob)) {
+            return reference;
+        }
+
+        Path temp = reference.resolveSibling("." + reference.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            try {
+                Files.createLink(temp, blob);
+            } catch (UnsupportedOperationException | FileSystemException e) {
+                log.debug("Hard link unavailable for {}, falling back to symbolic link", reference, e);
+                Files.createSymbolicLink(temp, blob.toAbsolutePath());
+            }
+            moveIntoPlace(temp, reference);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return reference;
+    }
+
+    private static void moveIntoPlace(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
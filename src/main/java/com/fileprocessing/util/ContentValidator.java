@@ -0,0 +1,245 @@
+package com.fileprocessing.util;
+
+import com.fileprocessing.model.FileModel;
+import com.google.protobuf.ByteString;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.zip.CRC32;
+
+/**
+ * Checks that the content of a file matches its declared type without decoding it.
+ * <p>
+ *  The signature (magic bytes) is checked first, then the structure of the format:
+ *  <ul>
+ *      <li>PNG: every chunk up to IEND is walked and its CRC verified; IHDR must come first and at least
+ *          one IDAT must be present.</li>
+ *      <li>JPEG: SOI, well-formed marker segments up to the start of scan, a frame header (SOF) before it,
+ *          and EOI after the scan data.</li>
+ *      <li>GIF: GIF87a/GIF89a header, logical screen descriptor and trailer.</li>
+ *      <li>PDF: {@code %PDF-x.y} header, {@code startxref} and {@code %%EOF} near the end.</li>
+ *  </ul>
+ *  Bytes after the JPEG EOI or the GIF trailer, such as padding or data appended by cameras and editors,
+ *  are accepted, as decoders ignore them. The cost is a single pass at most (PNG CRCs, JPEG scan data),
+ *  usually a few header reads. Whether the pixel data itself
+ *  decodes is only checked at {@link Level#DEEP}, by {@link FileOperations#validateFile}.
+ * </p>
+ */
+public final class ContentValidator {
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    /** PDF readers accept the header anywhere in the first 1024 bytes and the trailer in the last 1024. */
+    private static final int PDF_SEARCH_WINDOW = 1024;
+    /** Bytes at the end of the content searched for a trailer that may be followed by padding or appended data. */
+    static final int TRAILER_SEARCH_WINDOW = 64 * 1024;
+    private static final byte[] JPEG_EOI = {(byte) 0xFF, (byte) 0xD9};
+    private static final byte[] GIF_TRAILER = {0x3B};
+
+    private ContentValidator() {
+        // prevent instantiation
+    }
+
+    /**
+     * How thoroughly VALIDATE checks file content, selected by the {@code level} parameter of the operation.
+     */
+    public enum Level {
+        /** Signature and structure checks only. */
+        FAST,
+        /** Structure checks followed by a full decode of images. */
+        DEEP;
+
+        /**
+         * @param value the {@code level} parameter, or null for the default
+         * @return the level named by the parameter, {@link #FAST} if absent
+         * @throws IllegalArgumentException if the parameter names no level
+         */
+        public static Level of(Object value) {
+            if (value == null) {
+                return FAST;
+            }
+            try {
+                return valueOf(value.toString().trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown validation level: " + value);
+            }
+        }
+    }
+
+    /**
+     * Checks the structure of the file's content against its declared type. Types without a structural
+     * check are accepted as they are.
+     *
+     * @param file the file to check
+     * @throws IllegalArgumentException if the content does not match the declared type
+     */
+    public static void validate(@NotNull FileModel file) {
+        ByteString content = file.data();
+        String problem = switch (file.fileType().toLowerCase(Locale.ROOT)) {
+            case "png" -> checkPng(content);
+            case "jpg", "jpeg" -> checkJpeg(content);
+            case "gif" -> checkGif(content);
+            case "pdf" -> checkPdf(content);
+            default -> null;
+        };
+        if (problem != null) {
+            throw new IllegalArgumentException("Invalid " + file.fileType() + " content for file "
+                    + file.fileName() + ": " + problem);
+        }
+    }
+
+    private static String checkPng(ByteString content) {
+        if (!startsWith(content, PNG_SIGNATURE)) {
+            return "missing PNG signature";
+        }
+        CRC32 crc = new CRC32();
+        boolean first = true;
+        boolean hasData = false;
+        long offset = PNG_SIGNATURE.length;
+        while (offset + 12 <= content.size()) {
+            long length = readInt(content, (int) offset) & 0xFFFFFFFFL;
+            String type = content.substring((int) offset + 4, (int) offset + 8).toString(StandardCharsets.ISO_8859_1);
+            long end = offset + 12 + length;
+            if (end > content.size()) {
+                return "chunk " + type + " at offset " + offset + " is truncated";
+            }
+            if (first && (!type.equals("IHDR") || length != 13)) {
+                return "first chunk is not a valid IHDR";
+            }
+            crc.reset();
+            // Segment by segment, so content assembled from upload chunks is not flattened
+            ByteString checked = content.substring((int) offset + 4, (int) end - 4);
+            for (ByteBuffer segment : checked.asReadOnlyByteBufferList()) {
+                crc.update(segment);
+            }
+            if ((int) crc.getValue() != readInt(content, (int) end - 4)) {
+                return "CRC mismatch in chunk " + type + " at offset " + offset;
+            }
+            first = false;
+            hasData |= type.equals("IDAT");
+            if (type.equals("IEND")) {
+                return hasData ? null : "no IDAT chunk";
+            }
+            offset = end;
+        }
+        return "missing IEND chunk";
+    }
+
+    private static String checkJpeg(ByteString content) {
+        if (content.size() < 4 || unsigned(content, 0) != 0xFF || unsigned(content, 1) != 0xD8) {
+            return "missing JPEG SOI marker";
+        }
+        boolean hasFrame = false;
+        int offset = 2;
+        while (offset + 4 <= content.size()) {
+            if (unsigned(content, offset) != 0xFF) {
+                return "expected a marker at offset " + offset;
+            }
+            int marker = unsigned(content, offset + 1);
+            if (marker == 0xFF) {
+                offset++; // fill byte
+                continue;
+            }
+            if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD7)) {
+                offset += 2; // standalone markers carry no length
+                continue;
+            }
+            int length = (unsigned(content, offset + 2) << 8) | unsigned(content, offset + 3);
+            if (length < 2 || offset + 2 + length > content.size()) {
+                return "segment " + Integer.toHexString(marker) + " at offset " + offset + " is truncated";
+            }
+            if (marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC) {
+                hasFrame = true;
+            }
+            if (marker == 0xDA) {
+                if (!hasFrame) {
+                    return "start of scan before any frame header";
+                }
+                // Entropy-coded data stuffs every 0xFF, so the first FF D9 after the scan header is EOI
+                return indexOf(content, JPEG_EOI, offset + 2 + length) >= 0 ? null : "missing JPEG EOI marker";
+            }
+            offset += 2 + length;
+        }
+        return "no start of scan";
+    }
+
+    private static String checkGif(ByteString content) {
+        String header = content.size() >= 6 ? content.substring(0, 6).toString(StandardCharsets.ISO_8859_1) : "";
+        if (!header.equals("GIF87a") && !header.equals("GIF89a")) {
+            return "missing GIF signature";
+        }
+        if (content.size() < 14) {
+            return "logical screen descriptor is truncated";
+        }
+        if (!hasTrailer(content, GIF_TRAILER)) {
+            return "missing GIF trailer";
+        }
+        return null;
+    }
+
+    private static String checkPdf(ByteString content) {
+        String head = content.substring(0, Math.min(content.size(), PDF_SEARCH_WINDOW))
+                .toString(StandardCharsets.ISO_8859_1);
+        int header = head.indexOf("%PDF-");
+        if (header < 0 || header + 8 > head.length() || !Character.isDigit(head.charAt(header + 5))
+                || head.charAt(header + 6) != '.' || !Character.isDigit(head.charAt(header + 7))) {
+            return "missing %PDF-x.y header";
+        }
+        String tail = content.substring(Math.max(0, content.size() - PDF_SEARCH_WINDOW))
+                .toString(StandardCharsets.ISO_8859_1);
+        int eof = tail.lastIndexOf("%%EOF");
+        if (eof < 0 || !tail.substring(eof + 5).isBlank()) {
+            return "missing %%EOF trailer";
+        }
+        if (!tail.substring(0, eof).contains("startxref")) {
+            return "missing startxref";
+        }
+        return null;
+    }
+
+    /**
+     * @return whether {@code trailer} occurs in the last {@link #TRAILER_SEARCH_WINDOW} bytes of the content
+     */
+    static boolean hasTrailer(ByteString content, byte[] trailer) {
+        return indexOf(content, trailer, Math.max(0, content.size() - TRAILER_SEARCH_WINDOW)) >= 0;
+    }
+
+    /**
+     * @return the offset of the first occurrence of {@code pattern} at or after {@code from}, or -1 if none
+     */
+    static int indexOf(ByteString content, byte[] pattern, int from) {
+        int last = content.size() - pattern.length;
+        for (int offset = Math.max(0, from); offset <= last; offset++) {
+            int i = 0;
+            while (i < pattern.length && content.byteAt(offset + i) == pattern[i]) {
+                i++;
+            }
+            if (i == pattern.length) {
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean startsWith(ByteString content, byte[] prefix) {
+        if (content.size() < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (content.byteAt(i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int unsigned(ByteString content, int index) {
+        return content.byteAt(index) & 0xFF;
+    }
+
+    private static int readInt(ByteString content, int offset) {
+        return (unsigned(content, offset) << 24) | (unsigned(content, offset + 1) << 16)
+                | (unsigned(content, offset + 2) << 8) | unsigned(content, offset + 3);
+    }
+}
@@ -0,0 +1,104 @@
+package com.fileprocessing.util;
+
+import com.fileprocessing.model.FileModel;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-file holder for the decoded raster of an image, shared by every operation on that file.
+ * <p>
+ *  The image is decoded lazily by the first operation that needs it and cached, so deep VALIDATE,
+ *  IMAGE_RESIZE and FORMAT_CONVERSION on the same file pay for a single {@link ImageIO#read} between
+ *  them; METADATA_EXTRACTION only reads the header, see {@link ImageHeaderReader}, and the default
+ *  VALIDATE only checks the structure, see {@link ContentValidator}. Decoding failures, including
+ *  runtime exceptions thrown by an ImageIO plugin, are cached as well and rethrown to every caller.
+ * </p>
+ * <p>
+ *  The context is created for a known number of users; each user calls {@link #release()} when it
+ *  finishes, and the cached raster is dropped once the last one has done so.
+ * </p>
+ * <p>Thread-safe.</p>
+ */
+@Slf4j
+public final class DecodedImageContext {
+
+    private final FileModel file;
+    private final AtomicInteger remainingUsers;
+
+    private boolean decoded;
+    private BufferedImage image;
+    private Exception failure;
+
+    /**
+     * @param file  the file whose content will be decoded; must not be null
+     * @param users the number of operations sharing this context; must be positive
+     */
+    public DecodedImageContext(@NotNull FileModel file, int users) {
+        if (users <= 0) {
+            throw new IllegalArgumentException("users must be positive");
+        }
+        this.file = Objects.requireNonNull(file, "file cannot be null");
+        this.remainingUsers = new AtomicInteger(users);
+    }
+
+    /**
+     * Creates a context used by a single operation.
+     */
+    public static DecodedImageContext singleUse(@NotNull FileModel file) {
+        return new DecodedImageContext(file, 1);
+    }
+
+    /** @return the file this context decodes */
+    public FileModel file() {
+        return file;
+    }
+
+    /**
+     * Returns the decoded image, decoding it on first access.
+     *
+     * @return the decoded image, or null if no registered reader recognises the content
+     * @throws IOException           if decoding failed
+     * @throws RuntimeException      if the ImageIO plugin failed while decoding
+     * @throws IllegalStateException if all users have already released the context
+     */
+    public synchronized BufferedImage image() throws IOException {
+        if (remainingUsers.get() <= 0) {
+            throw new IllegalStateException("Decoded image context already released for file " + file.fileId());
+        }
+        if (!decoded) {
+            try (InputStream is = file.contentStream()) {
+                image = ImageIO.read(is);
+            } catch (IOException | RuntimeException e) {
+                failure = e;
+            }
+            decoded = true;
+            log.debug("Decoded image for file {}", file.fileName());
+        }
+        if (failure instanceof IOException e) {
+            throw e;
+        }
+        if (failure != null) {
+            throw (RuntimeException) failure;
+        }
+        return image;
+    }
+
+    /**
+     * Signals that one user has finished with the context. The cached image is released after the last user.
+     */
+    public void release() {
+        if (remainingUsers.decrementAndGet() == 0) {
+            synchronized (this) {
+                image = null;
+                failure = null;
+            }
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.fileprocessing.util;
 
+import com.fileprocessing.compression.CompressionCodec;
+import com.fileprocessing.compression.GzipCodec;
 import com.fileprocessing.model.FileModel;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 
@@ -8,16 +12,16 @@ import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.locks.ReentrantLock;
-import java.util.zip.GZIPOutputStream;
 
 /**
  * Utility class for file operations with complete implementations.
@@ -26,18 +30,14 @@ import java.util.zip.GZIPOutputStream;
 public final class FileOperations {
     static final String STORAGE_DIR = "processed_files";
     private static final int MAX_FILE_SIZE_MB = 100;
+    public static final long MAX_FILE_SIZE_BYTES = MAX_FILE_SIZE_MB * 1024L * 1024L;
     private static final Map<String, String> MIME_TYPES;
-    private static final ReentrantLock STORAGE_LOCK = new ReentrantLock();
+    private static final ContentAddressedStore STORE = new ContentAddressedStore(Path.of(STORAGE_DIR));
+    private static final CompressionCodec DEFAULT_GZIP = new GzipCodec(ParallelGzipCompressor.sequential());
 
     static {
         MIME_TYPES = Map.of("pdf", "application/pdf", "jpg", "image/jpeg", "jpeg", "image/jpeg", "png", "image/png", "gif", "image/gif");
-
-        // Create storage directory if it doesn't exist
-        try {
-            Files.createDirectories(Path.of(STORAGE_DIR));
-        } catch (IOException e) {
-            log.error("Failed to create storage directory", e);
-        }
+        // The storage directory is created on demand by the store
     }
 
     private FileOperations() {
@@ -51,6 +51,37 @@ public final class FileOperations {
      * @throws IllegalArgumentException if validation fails
      */
     public static void validateFile(@NotNull FileModel file) {
+        validateFile(file, DecodedImageContext.singleUse(file));
+    }
+
+    /**
+     * Validate the file, reusing the image decoded by other operations on the same file.
+     * Content is checked at {@link ContentValidator.Level#FAST}.
+     *
+     * @param file   the file to validate
+     * @param images the decoded image context of {@code file}
+     * @throws IllegalArgumentException if validation fails
+     */
+    public static void validateFile(@NotNull FileModel file, @NotNull DecodedImageContext images) {
+        validateFile(file, images, ContentValidator.Level.FAST);
+    }
+
+    /**
+     * Validate the file, checking its content at the given level.
+     * <p>
+     *  {@link ContentValidator.Level#FAST} only checks the signature and structure of the content, see
+     *  {@link ContentValidator}. {@link ContentValidator.Level#DEEP} additionally decodes images, through
+     *  {@code images} so the raster is shared with later operations on the file.
+     * </p>
+     *
+     * @param file   the file to validate
+     * @param images the decoded image context of {@code file}
+     * @param level  how thoroughly to check the content
+     * @throws IllegalArgumentException if validation fails
+     */
+    public static void validateFile(@NotNull FileModel file, @NotNull DecodedImageContext images,
+                                    @NotNull ContentValidator.Level level) {
+        requireContextOf(file, images);
         if (file.fileName().isEmpty()) {
             throw new IllegalArgumentException("File name cannot be empty");
         }
@@ -60,7 +91,7 @@ public final class FileOperations {
         if (file.sizeBytes() <= 0) {
             throw new IllegalArgumentException("File is empty: " + file.fileName());
         }
-        if (file.sizeBytes() > MAX_FILE_SIZE_MB * 1024 * 1024) {
+        if (file.sizeBytes() > MAX_FILE_SIZE_BYTES) {
             throw new IllegalArgumentException("File exceeds maximum size of " + MAX_FILE_SIZE_MB + "MB");
         }
         if (file.fileName().contains("..") || file.fileName().contains("/")) {
@@ -75,18 +106,21 @@ public final class FileOperations {
         }
 
         // Validate file content matches its extension
-        validateFileContent(file);
+        validateFileContent(file, images, level);
 
-        log.info("Validated file: {} ({} bytes)", file.fileName(), file.sizeBytes());
+        log.info("Validated file: {} ({} bytes, {})", file.fileName(), file.sizeBytes(), level);
     }
 
-    private static void validateFileContent(@NotNull FileModel file) {
+    private static void validateFileContent(@NotNull FileModel file, @NotNull DecodedImageContext images,
+                                            @NotNull ContentValidator.Level level) {
+        ContentValidator.validate(file);
+        if (level == ContentValidator.Level.FAST) {
+            return;
+        }
         try {
             if (file.isImage()) {
-                try (InputStream is = new ByteArrayInputStream(file.content())) {
-                    if (ImageIO.read(is) == null) {
-                        throw new IllegalArgumentException("Invalid image content for file: " + file.fileName());
-                    }
+                if (images.image() == null) {
+                    throw new IllegalArgumentException("Invalid image content for file: " + file.fileName());
                 }
             }
             // Add more content validation for other file types as needed
@@ -102,36 +136,46 @@ public final class FileOperations {
      * @return Map containing the metadata
      */
     public static Map<String, String> extractMetadata(@NotNull FileModel file) {
+        return extractMetadata(file, DecodedImageContext.singleUse(file));
+    }
+
+    /**
+     * Extract metadata from the file. Image properties (dimensions, color model, bit depth and frame count)
+     * are read from the header only, see {@link ImageHeaderReader}, so the raster in {@code images} is never
+     * decoded for metadata.
+     *
+     * @param file   the file to extract metadata from
+     * @param images the decoded image context of {@code file}
+     * @return Map containing the metadata
+     */
+    public static Map<String, String> extractMetadata(@NotNull FileModel file, @NotNull DecodedImageContext images) {
+        requireContextOf(file, images);
         Map<String, String> metadata = new HashMap<>();
         metadata.put("fileId", file.fileId());
         metadata.put("fileName", file.fileName());
         metadata.put("fileType", file.fileType());
         metadata.put("sizeBytes", String.valueOf(file.sizeBytes()));
         metadata.put("mimeType", MIME_TYPES.getOrDefault(file.fileType().toLowerCase(), "application/octet-stream"));
-        metadata.put("checksum", calculateChecksum(file.content()));
+        metadata.put("checksum", calculateChecksum(file.data()));
 
-        try {
-            if (file.isImage()) {
-                try (InputStream is = new ByteArrayInputStream(file.content())) {
-                    BufferedImage image = ImageIO.read(is);
-                    if (image != null) {
-                        metadata.put("width", String.valueOf(image.getWidth()));
-                        metadata.put("height", String.valueOf(image.getHeight()));
-                    }
-                }
-            }
-        } catch (IOException e) {
-            log.warn("Failed to extract image metadata for file: {}", file.fileName(), e);
+        if (file.isImage()) {
+            ImageHeaderReader.read(file).ifPresentOrElse(
+                    header -> header.addTo(metadata),
+                    () -> log.warn("Failed to extract image metadata for file: {}", file.fileName()));
         }
 
         log.info("Extracted metadata: {}", metadata);
         return metadata;
     }
 
-    private static String calculateChecksum(byte[] content) {
+    static String calculateChecksum(ByteString content) {
         try {
             MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(content);
+            // Chunked uploads are ropes: digest segment by segment instead of flattening them
+            for (ByteBuffer segment : content.asReadOnlyByteBufferList()) {
+                digest.update(segment);
+            }
+            byte[] hash = digest.digest();
             StringBuilder hexString = new StringBuilder();
             for (byte b : hash) {
                 String hex = Integer.toHexString(0xff & b);
@@ -145,30 +189,107 @@ public final class FileOperations {
     }
 
     /**
-     * Compress the file using GZIP with optimal compression settings.
+     * Compress the file with gzip at the default level into a new temporary directory.
      *
      * @param file the file to compress
      * @return Path to the compressed file
+     * @deprecated every call creates a temporary directory that is never removed; use
+     *             {@link #compressFile(FileModel, CompressionCodec, int, Path)} with a configured directory
      */
+    @Deprecated
     public static Path compressFile(@NotNull FileModel file) {
-        Path tempDir;
         try {
-            tempDir = Files.createTempDirectory("compressed_files");
-            Path outputFile = tempDir.resolve(file.fileName() + ".gz");
+            return compressFile(file, DEFAULT_GZIP, -1, Files.createTempDirectory("compressed_files")).path();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to compress file: " + file.fileName(), e);
+        }
+    }
 
-            try (OutputStream fos = Files.newOutputStream(outputFile);
-                 GZIPOutputStream gos = new GZIPOutputStream(fos)) {
-                gos.write(file.content());
+    /**
+     * Compress the file with the given codec into {@code outputDirectory}, as
+     * {@code <fileId>_<fileName><extension>}. The output is written under a temporary name and then moved into
+     * place, so an earlier output of the same file is replaced atomically and no partial file is left behind.
+     *
+     * @param file            the file to compress
+     * @param codec           the codec to use
+     * @param level           the level to pass to the codec
+     * @param outputDirectory the directory to write to; created on demand
+     * @return the compressed file and its size
+     * @throws IllegalArgumentException if the file's id or name would place the output outside the directory
+     */
+    public static CompressionResult compressFile(@NotNull FileModel file, @NotNull CompressionCodec codec, int level,
+                                                 @NotNull Path outputDirectory) {
+        try {
+            Files.createDirectories(outputDirectory);
+            Path outputFile = ContentAddressedStore.resolveName(outputDirectory,
+                    file.fileId() + "_" + file.fileName() + codec.extension());
+            Path temp = Files.createTempFile(outputDirectory, ".compress", ".tmp");
+            try {
+                try (OutputStream fos = new BufferedOutputStream(Files.newOutputStream(temp), 64 * 1024)) {
+                    codec.compress(file.data(), level, fos);
+                }
+                Files.move(temp, outputFile, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
             }
-
-            log.info("Compressed {} to {} (Original size: {}, Compressed size: {})",
-                    file.fileName(), outputFile, file.sizeBytes(), Files.size(outputFile));
-            return outputFile;
+            return compressed(file, outputFile, codec, level);
         } catch (IOException e) {
             throw new RuntimeException("Failed to compress file: " + file.fileName(), e);
         }
     }
 
+    /**
+     * Compress the file with the given codec straight into persistent storage. The compressed stream is
+     * written once, into the content-addressed store, instead of to a temporary file that would then be
+     * copied; the stored artifact is referenced as {@code <type>/<fileId>_<fileName><extension>}.
+     *
+     * @param file  the file to compress and store
+     * @param codec the codec to use
+     * @param level the level to pass to the codec
+     * @param store the store to write into
+     * @return the stored compressed file and its size
+     */
+    public static CompressionResult compressAndStoreFile(@NotNull FileModel file, @NotNull CompressionCodec codec,
+                                                         int level, @NotNull ContentAddressedStore store) {
+        try {
+            Path destinationPath = store.store(file, codec.extension(), out -> codec.compress(file.data(), level, out));
+            return compressed(file, destinationPath, codec, level);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to compress and store file: " + file.fileName(), e);
+        }
+    }
+
+    private static CompressionResult compressed(FileModel file, Path path, CompressionCodec codec, int level)
+            throws IOException {
+        CompressionResult result = new CompressionResult(path, file.data().size(), Files.size(path));
+        log.info("Compressed {} to {} ({}, {})", file.fileName(), path, codec.describe(level), result.describe());
+        return result;
+    }
+
+    /**
+     * Output of {@link #compressFile(FileModel, CompressionCodec, int, Path)} and {@link #compressAndStoreFile}.
+     *
+     * @param path            path to the compressed file
+     * @param originalBytes   size of the content before compression
+     * @param compressedBytes size of the compressed file
+     */
+    public record CompressionResult(Path path, long originalBytes, long compressedBytes) {
+
+        /**
+         * @return original size divided by compressed size; above 1 when compression saved space
+         */
+        public double ratio() {
+            return compressedBytes == 0 ? 0 : (double) originalBytes / compressedBytes;
+        }
+
+        /**
+         * @return the ratio and sizes, for operation results
+         */
+        public String describe() {
+            return String.format(Locale.ROOT, "ratio=%.2f (%d -> %d bytes)", ratio(), originalBytes, compressedBytes);
+        }
+    }
+
     /**
      * Perform OCR on image or PDF files using Tesseract.
      * Note: Requires Tesseract to be installed on the system.
@@ -202,6 +323,21 @@ public final class FileOperations {
         if (file == null) {
             throw new NullPointerException("File cannot be null");
         }
+        return resizeImage(file, DecodedImageContext.singleUse(file), maxWidth, maxHeight);
+    }
+
+    /**
+     * Resize an image while maintaining aspect ratio, reusing the image decoded by other operations on the same file.
+     *
+     * @param file      the image to resize
+     * @param images    the decoded image context of {@code file}
+     * @param maxWidth  maximum width
+     * @param maxHeight maximum height
+     * @return resized image as a new FileModel
+     */
+    public static FileModel resizeImage(@NotNull FileModel file, @NotNull DecodedImageContext images,
+                                        int maxWidth, int maxHeight) {
+        requireContextOf(file, images);
         if (!file.isImage()) {
             throw new UnsupportedOperationException("Resize only supported for images");
         }
@@ -212,8 +348,8 @@ public final class FileOperations {
             throw new IllegalArgumentException("Dimensions are too large");
         }
 
-        try (InputStream is = new ByteArrayInputStream(file.content())) {
-            BufferedImage originalImage = ImageIO.read(is);
+        try {
+            BufferedImage originalImage = images.image();
             if (originalImage == null) {
                 throw new IllegalArgumentException("Invalid image content");
             }
@@ -240,7 +376,7 @@ public final class FileOperations {
             return FileModel.builder()
                     .fileId(UUID.randomUUID().toString())
                     .fileName("resized_" + file.fileName())
-                    .content(baos.toByteArray())
+                    .data(UnsafeByteOperations.unsafeWrap(baos.toByteArray()))
                     .fileType(file.fileType())
                     .sizeBytes(baos.size())
                     .build();
@@ -257,6 +393,20 @@ public final class FileOperations {
      * @return converted file as a new FileModel
      */
     public static FileModel convertFormat(@NotNull FileModel file, @NotNull String targetFormat) {
+        return convertFormat(file, DecodedImageContext.singleUse(file), targetFormat);
+    }
+
+    /**
+     * Convert file format to a different type, reusing the image decoded by other operations on the same file.
+     *
+     * @param file         the file to convert
+     * @param images       the decoded image context of {@code file}
+     * @param targetFormat the desired output format
+     * @return converted file as a new FileModel
+     */
+    public static FileModel convertFormat(@NotNull FileModel file, @NotNull DecodedImageContext images,
+                                          @NotNull String targetFormat) {
+        requireContextOf(file, images);
         if (targetFormat.isEmpty()) {
             throw new UnsupportedOperationException("Target format cannot be empty");
         }
@@ -264,8 +414,8 @@ public final class FileOperations {
             throw new UnsupportedOperationException("Format conversion currently only supported for images");
         }
 
-        try (InputStream is = new ByteArrayInputStream(file.content())) {
-            BufferedImage image = ImageIO.read(is);
+        try {
+            BufferedImage image = images.image();
             if (image == null) {
                 throw new IllegalArgumentException("Invalid image content");
             }
@@ -279,7 +429,7 @@ public final class FileOperations {
             return FileModel.builder()
                     .fileId(UUID.randomUUID().toString())
                     .fileName(newFileName)
-                    .content(baos.toByteArray())
+                    .data(UnsafeByteOperations.unsafeWrap(baos.toByteArray()))
                     .fileType(targetFormat)
                     .sizeBytes(baos.size())
                     .build();
@@ -290,32 +440,37 @@ public final class FileOperations {
 
     /**
      * Store the file in a persistent location with proper organization.
+     * Identical content is stored only once; see {@link ContentAddressedStore}.
+     * Safe to call concurrently without global locking.
      *
      * @param file the file to store
      * @return Path to the stored file
      */
     public static Path storeFile(@NotNull FileModel file) {
-        STORAGE_LOCK.lock();
-        try {
-            // Create type-specific subdirectory
-            Path typeDir = Path.of(STORAGE_DIR, file.fileType().toLowerCase());
-            Files.createDirectories(typeDir);
-
-            // Create a unique filename to prevent collisions
-            String uniqueFileName = file.fileId() + "_" + file.fileName();
-            Path destinationPath = typeDir.resolve(uniqueFileName);
+        return storeFile(file, STORE);
+    }
 
-            // Store the file
-            try (InputStream is = new ByteArrayInputStream(file.content())) {
-                Files.copy(is, destinationPath, StandardCopyOption.REPLACE_EXISTING);
-            }
+    /**
+     * Store the file in the given content-addressed store.
+     *
+     * @param file  the file to store
+     * @param store the store to write into
+     * @return Path to the stored file
+     */
+    public static Path storeFile(@NotNull FileModel file, @NotNull ContentAddressedStore store) {
+        try {
+            Path destinationPath = store.store(file, calculateChecksum(file.data()));
 
             log.info("Stored {} to {}", file.fileName(), destinationPath);
             return destinationPath;
         } catch (IOException e) {
             throw new RuntimeException("Failed to store file: " + file.fileName(), e);
-        } finally {
-            STORAGE_LOCK.unlock();
+        }
+    }
+
+    private static void requireContextOf(FileModel file, DecodedImageContext images) {
+        if (images.file() != file) {
+            throw new IllegalArgumentException("Decoded image context does not belong to file: " + file.fileName());
         }
     }
 }
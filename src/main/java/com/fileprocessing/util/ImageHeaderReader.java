@@ -0,0 +1,133 @@
+package com.fileprocessing.util;
+
+import com.fileprocessing.model.FileModel;
+import com.google.protobuf.ByteString;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.color.ColorSpace;
+import java.awt.image.ColorModel;
+import java.awt.image.IndexColorModel;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Reads image properties from the header of the content without decoding the raster.
+ * <p>
+ *  Uses the {@link ImageReader} registered for the format, asking only for the dimensions and raw image
+ *  type of the first image (PNG IHDR, JPEG SOF, GIF logical screen and image descriptors) with metadata
+ *  parsing disabled, so the cost does not depend on the number of pixels. Counting GIF frames skips over
+ *  their compressed data without decoding it. Content whose trailer is missing altogether (PNG IEND, JPEG
+ *  EOI, GIF trailer) is treated as truncated and yields no header, as a full decode would fail on it; bytes
+ *  after the trailer are ignored, as decoders do.
+ * </p>
+ */
+@Slf4j
+public final class ImageHeaderReader {
+
+    private static final byte[] PNG_IEND = {0, 0, 0, 0, 'I', 'E', 'N', 'D', (byte) 0xAE, 0x42, 0x60, (byte) 0x82};
+    private static final byte[] JPEG_EOI = {(byte) 0xFF, (byte) 0xD9};
+    private static final byte[] GIF_TRAILER = {0x3B};
+
+    private ImageHeaderReader() {
+        // prevent instantiation
+    }
+
+    /**
+     * Properties read from an image header.
+     *
+     * @param format     format name reported by the reader, such as {@code png}
+     * @param width      width of the first image in pixels
+     * @param height     height of the first image in pixels
+     * @param colorModel color model such as {@code RGB}, {@code RGBA}, {@code GRAY} or {@code INDEXED}
+     * @param bitDepth   bits per sample of the first band
+     * @param frameCount number of images in the file, 1 except for animations and multi-image files
+     */
+    public record ImageHeader(String format, int width, int height, String colorModel, int bitDepth, int frameCount) {
+
+        /**
+         * Adds the properties to a metadata map.
+         */
+        public void addTo(Map<String, String> metadata) {
+            metadata.put("imageFormat", format);
+            metadata.put("width", String.valueOf(width));
+            metadata.put("height", String.valueOf(height));
+            metadata.put("colorModel", colorModel);
+            metadata.put("bitDepth", String.valueOf(bitDepth));
+            metadata.put("frameCount", String.valueOf(frameCount));
+        }
+    }
+
+    /**
+     * Reads the header of the file's content.
+     *
+     * @param file the file to read
+     * @return the header, or empty if the content is not a complete image of a registered format
+     */
+    public static Optional<ImageHeader> read(@NotNull FileModel file) {
+        try (ImageInputStream input = new MemoryCacheImageInputStream(file.contentStream())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return Optional.empty();
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, false, true);
+                String format = reader.getFormatName().toLowerCase();
+                if (!hasTrailer(format, file.data())) {
+                    log.debug("Image {} has no {} trailer, treating it as truncated", file.fileName(), format);
+                    return Optional.empty();
+                }
+
+                ImageTypeSpecifier type = reader.getRawImageType(0);
+                if (type == null) {
+                    Iterator<ImageTypeSpecifier> types = reader.getImageTypes(0);
+                    type = types.hasNext() ? types.next() : null;
+                }
+                return Optional.of(new ImageHeader(
+                        format,
+                        reader.getWidth(0),
+                        reader.getHeight(0),
+                        type != null ? colorModelOf(type.getColorModel()) : "UNKNOWN",
+                        type != null ? type.getSampleModel().getSampleSize(0) : 0,
+                        reader.getNumImages(true)));
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("Failed to read image header of {}: {}", file.fileName(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static boolean hasTrailer(String format, ByteString content) {
+        return switch (format) {
+            case "png" -> ContentValidator.hasTrailer(content, PNG_IEND);
+            // EOI may be followed by padding or appended data of any length
+            case "jpeg", "jpg" -> ContentValidator.indexOf(content, JPEG_EOI, 2) >= 0;
+            case "gif" -> ContentValidator.hasTrailer(content, GIF_TRAILER);
+            default -> true;
+        };
+    }
+
+    private static String colorModelOf(ColorModel colorModel) {
+        if (colorModel instanceof IndexColorModel) {
+            return "INDEXED";
+        }
+        String space = switch (colorModel.getColorSpace().getType()) {
+            case ColorSpace.TYPE_RGB -> "RGB";
+            case ColorSpace.TYPE_GRAY -> "GRAY";
+            case ColorSpace.TYPE_CMYK -> "CMYK";
+            case ColorSpace.TYPE_YCbCr -> "YCbCr";
+            default -> "OTHER";
+        };
+        return colorModel.hasAlpha() ? space + "A" : space;
+    }
+}
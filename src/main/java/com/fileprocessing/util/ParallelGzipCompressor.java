@@ -0,0 +1,178 @@
+package com.fileprocessing.util;
+
+import com.google.protobuf.ByteString;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Block-parallel GZIP compressor, in the spirit of pigz.
+ * <p>
+ *  Content larger than one block is split into blocks of {@code blockSize} bytes, each block is deflated
+ *  on the given executor as an independent gzip member, and the members are written in order. A sequence
+ *  of members is a valid gzip file (RFC 1952) that {@code gunzip} and {@link java.util.zip.GZIPInputStream}
+ *  decompress to the original content. Each member restarts the dictionary, which costs a little ratio
+ *  per block, so blocks should be large (the default is 1 MiB).
+ * </p>
+ * <p>
+ *  At most {@code parallelism} blocks are compressed or waiting to be written at any time, bounding the
+ *  extra memory to about {@code parallelism * blockSize}. Content of a single block is compressed on the
+ *  calling thread.
+ * </p>
+ * <p>
+ *  The caller never waits for a block that no thread has started: when it needs the next block, it
+ *  compresses it itself unless a worker already picked it up. Callers may therefore run on the executor
+ *  they hand blocks to, even a saturated one, without starving or deadlocking on blocks queued behind them.
+ * </p>
+ * <p>Thread-safe; instances hold no state between calls.</p>
+ */
+public final class ParallelGzipCompressor {
+
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+    static final int MIN_BLOCK_SIZE = 32 * 1024;
+
+    private final int level;
+    private final int blockSize;
+    private final Executor executor;
+    private final int parallelism;
+
+    /**
+     * @param level       deflate level, 0 (store only), 1 (fastest) to 9 (smallest), or -1 for the zlib default
+     * @param blockSize   bytes per block, at least 32 KiB
+     * @param executor    executor the blocks are compressed on
+     * @param parallelism maximum number of blocks in flight
+     */
+    public ParallelGzipCompressor(int level, int blockSize, @NotNull Executor executor, int parallelism) {
+        if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Compression level must be between -1 and 9: " + level);
+        }
+        if (blockSize < MIN_BLOCK_SIZE) {
+            throw new IllegalArgumentException("Block size must be at least " + MIN_BLOCK_SIZE + " bytes: " + blockSize);
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.level = level;
+        this.blockSize = blockSize;
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @return a compressor writing a single gzip member on the calling thread, like {@link GZIPOutputStream}
+     */
+    public static ParallelGzipCompressor sequential() {
+        return new ParallelGzipCompressor(Deflater.DEFAULT_COMPRESSION, Integer.MAX_VALUE, Runnable::run, 1);
+    }
+
+    /**
+     * @return a compressor with the same block size, executor and parallelism but the given level
+     */
+    public ParallelGzipCompressor withLevel(int level) {
+        return level == this.level ? this : new ParallelGzipCompressor(level, blockSize, executor, parallelism);
+    }
+
+    /**
+     * Compresses the content to the given stream. The stream is not closed.
+     *
+     * @throws IOException if writing to {@code out} or compressing a block fails
+     */
+    public void compress(@NotNull ByteString content, @NotNull OutputStream out) throws IOException {
+        if (content.size() <= blockSize || parallelism == 1) {
+            writeMember(content, out);
+            return;
+        }
+
+        Deque<FutureTask<byte[]>> window = new ArrayDeque<>(parallelism);
+        try {
+            for (long offset = 0; offset < content.size(); offset += blockSize) {
+                if (window.size() == parallelism) {
+                    out.write(await(window.poll()));
+                }
+                ByteString block = content.substring((int) offset, (int) Math.min(content.size(), offset + blockSize));
+                FutureTask<byte[]> member = new FutureTask<>(() -> member(block));
+                window.add(member);
+                executor.execute(member);
+            }
+            while (!window.isEmpty()) {
+                out.write(await(window.poll()));
+            }
+        } finally {
+            window.forEach(pending -> pending.cancel(false));
+        }
+    }
+
+    /**
+     * @return the number of gzip members {@link #compress} writes for content of the given size
+     */
+    public int membersFor(long contentSize) {
+        if (contentSize <= blockSize || parallelism == 1) {
+            return 1;
+        }
+        return (int) ((contentSize + blockSize - 1) / blockSize);
+    }
+
+    private byte[] member(ByteString block) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(block.size() / 2 + 64);
+        writeMember(block, buffer);
+        return buffer.toByteArray();
+    }
+
+    private void writeMember(ByteString block, OutputStream out) throws IOException {
+        MemberOutputStream gzip = new MemberOutputStream(out, level);
+        try {
+            block.writeTo(gzip);
+            gzip.finish();
+        } finally {
+            gzip.release();
+        }
+    }
+
+    /**
+     * Returns the compressed block, compressing it on the calling thread if no worker has started it yet.
+     * Running a task that has already started or finished does nothing.
+     */
+    private static byte[] await(FutureTask<byte[]> member) throws IOException {
+        member.run();
+        try {
+            return member.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a compressed block");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Failed to compress block", e.getCause());
+        }
+    }
+
+    /**
+     * Gzip stream with a configurable level that, unlike {@link GZIPOutputStream#close()}, frees its
+     * deflater without closing the underlying stream, so several members can follow each other.
+     */
+    private static final class MemberOutputStream extends GZIPOutputStream {
+
+        MemberOutputStream(OutputStream out, int level) throws IOException {
+            super(out, 64 * 1024);
+            def.setLevel(level);
+        }
+
+        void release() {
+            def.end();
+        }
+    }
+}
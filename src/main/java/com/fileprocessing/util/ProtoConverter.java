@@ -21,6 +21,10 @@ public final class ProtoConverter {
     // Request Conversions
     // =======================
 
+    /**
+     * @throws IllegalArgumentException if an {@code operation_parameters} key is not named
+     *                                  {@code <OPERATION>.<name>} after a known operation
+     */
     public static FileProcessingRequestModel toInternalModel(FileProcessingRequest request) {
         List<FileModel> files = request.getFilesList().stream()
                 .map(ProtoConverter::toInternalFileModel)
@@ -28,17 +32,37 @@ public final class ProtoConverter {
 
         List<OperationType> defaultOps = request.getOperationsList();
 
-        return FileProcessingRequestModel.builder()
+        FileProcessingRequestModel.FileProcessingRequestModelBuilder builder = FileProcessingRequestModel.builder()
                 .files(files)
-                .defaultOperations(defaultOps)
-                .build();
+                .defaultOperations(defaultOps);
+        request.getOperationParametersMap().forEach((key, value) -> {
+            int separator = key.indexOf('.');
+            if (separator <= 0 || separator == key.length() - 1) {
+                throw new IllegalArgumentException("Operation parameter must be named <OPERATION>.<name>: " + key);
+            }
+            builder.addOperationParameter(operationOf(key.substring(0, separator), key),
+                    key.substring(separator + 1), value);
+        });
+        return builder.build();
+    }
+
+    private static OperationType operationOf(String name, String key) {
+        try {
+            OperationType operation = OperationType.valueOf(name);
+            if (operation != OperationType.UNRECOGNIZED) {
+                return operation;
+            }
+        } catch (IllegalArgumentException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Unknown operation " + name + " in operation parameter: " + key);
     }
 
     public static FileModel toInternalFileModel(File fileProto) {
         return FileModel.builder()
                 .fileId(fileProto.getFileId())
                 .fileName(fileProto.getFileName())
-                .content(fileProto.getContent().toByteArray())
+                .data(fileProto.getContent())
                 .fileType(fileProto.getFileType())
                 .sizeBytes(fileProto.getSizeBytes())
                 .build();
@@ -93,7 +117,7 @@ public final class ProtoConverter {
                 .setFileName(model.fileName())
                 .setFileType(model.fileType())
                 .setSizeBytes(model.sizeBytes())
-                .setContent(com.google.protobuf.ByteString.copyFrom(model.content()))
+                .setContent(model.data())
                 .build();
     }
 
@@ -0,0 +1,153 @@
+package com.fileprocessing.compression;
+
+import com.fileprocessing.FileSpec.OperationType;
+import com.fileprocessing.concurrency.ThreadPoolManager;
+import com.fileprocessing.config.CompressionProperties;
+import com.fileprocessing.config.ThreadPoolProperties;
+import com.fileprocessing.model.FileModel;
+import com.fileprocessing.model.FileOperation;
+import com.fileprocessing.util.CompressibilityProbe;
+import com.google.protobuf.ByteString;
+import org.iq80.snappy.SnappyFramedInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressionCodecsTest {
+
+    private static final ByteString CONTENT = ByteString.copyFromUtf8("{\"sensor\":\"probe-7\",\"reading\":42}\n".repeat(300));
+    private static final byte[] DICTIONARY = "{\"sensor\":\"probe-\",\"reading\":".getBytes();
+
+    private ThreadPoolManager threadPoolManager;
+    private CompressionProperties properties;
+    private CompressionCodecs codecs;
+
+    @BeforeEach
+    void setUp() {
+        threadPoolManager = new ThreadPoolManager(new ThreadPoolProperties());
+        properties = new CompressionProperties();
+        codecs = new CompressionCodecs(List.of(
+                new GzipCodec(properties, threadPoolManager),
+                new DeflateCodec(DICTIONARY),
+                new SnappyCodec()), properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        threadPoolManager.shutdown();
+    }
+
+    private static byte[] compress(CompressionCodec codec, int level) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.compress(CONTENT, level, out);
+        return out.toByteArray();
+    }
+
+    private static FileOperation compressionWith(String name, Object value) {
+        return FileOperation.builder()
+                .operationType(OperationType.FILE_COMPRESSION)
+                .addParameter(name, value)
+                .build();
+    }
+
+    private static FileModel fileOf(ByteString content) {
+        return new FileModel("codec-1", "data.json", content.toByteArray(), "json", content.size());
+    }
+
+    @Test
+    void gzip_ShouldRoundTrip() throws IOException {
+        byte[] compressed = compress(codecs.forName("gzip"), 6);
+
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(CONTENT.toByteArray(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    void deflate_ShouldRoundTrip_WithPresetDictionary() throws Exception {
+        CompressionCodec deflate = codecs.forName("deflate");
+        byte[] compressed = compress(deflate, 9);
+
+        Inflater inflater = new Inflater(true);
+        inflater.setDictionary(DICTIONARY);
+        inflater.setInput(compressed);
+        byte[] restored = new byte[CONTENT.size()];
+        int length = inflater.inflate(restored);
+        inflater.end();
+
+        assertEquals(CONTENT.size(), length);
+        assertArrayEquals(CONTENT.toByteArray(), restored);
+        assertEquals("codec=deflate level=9 dictionary=" + DeflateCodec.idOf(DICTIONARY), deflate.describe(9));
+    }
+
+    @Test
+    void deflate_ShouldNotInflate_WithoutDictionary() throws IOException {
+        Inflater inflater = new Inflater(true);
+        inflater.setInput(compress(codecs.forName("deflate"), 9));
+
+        assertThrows(DataFormatException.class, () -> inflater.inflate(new byte[CONTENT.size()]));
+        inflater.end();
+    }
+
+    @Test
+    void snappy_ShouldRoundTrip_AndIgnoreLevel() throws IOException {
+        CompressionCodec snappy = codecs.forName("snappy");
+        byte[] compressed = compress(snappy, 9);
+
+        try (InputStream in = new SnappyFramedInputStream(new ByteArrayInputStream(compressed), true)) {
+            assertArrayEquals(CONTENT.toByteArray(), in.readAllBytes());
+        }
+        assertTrue(compressed.length < CONTENT.size());
+        assertEquals("codec=snappy", snappy.describe(9));
+    }
+
+    @Test
+    void select_ShouldUseParameters_OverConfiguration() {
+        CompressionCodecs.Selection selection =
+                codecs.select(compressionWith(CompressionCodecs.CODEC_PARAMETER, "deflate"), fileOf(CONTENT));
+
+        assertEquals("deflate", selection.codec().name());
+        // no level parameter: chosen by the probe
+        assertEquals(CompressibilityProbe.Mode.HIGH, selection.estimate().mode());
+
+        CompressionCodecs.Selection leveled =
+                codecs.select(compressionWith(CompressionCodecs.LEVEL_PARAMETER, "3"), fileOf(CONTENT));
+
+        assertEquals("gzip", leveled.codec().name());
+        assertEquals(3, leveled.level());
+        assertNull(leveled.estimate());
+    }
+
+    @Test
+    void select_ShouldUseConfiguredLevel_WhenNotAdaptive() {
+        properties.setAdaptive(false);
+        properties.setLevel(4);
+
+        CompressionCodecs.Selection selection = codecs.select(
+                FileOperation.builder().operationType(OperationType.FILE_COMPRESSION).build(), fileOf(CONTENT));
+
+        assertEquals(4, selection.level());
+        assertEquals("codec=gzip level=4", selection.describe());
+    }
+
+    @Test
+    void select_ShouldRejectUnknownCodecAndInvalidLevel() {
+        assertThrows(IllegalArgumentException.class,
+                () -> codecs.select(compressionWith(CompressionCodecs.CODEC_PARAMETER, "zip"), fileOf(CONTENT)));
+        assertThrows(IllegalArgumentException.class,
+                () -> codecs.select(compressionWith(CompressionCodecs.LEVEL_PARAMETER, "11"), fileOf(CONTENT)));
+        assertThrows(IllegalArgumentException.class,
+                () -> codecs.select(compressionWith(CompressionCodecs.LEVEL_PARAMETER, "max"), fileOf(CONTENT)));
+    }
+}
@@ -0,0 +1,182 @@
+package com.fileprocessing.compression;
+
+import com.fileprocessing.FileSpec.OperationType;
+import com.fileprocessing.config.CompressionProperties;
+import com.fileprocessing.model.FileModel;
+import com.fileprocessing.model.FileOperation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.zip.Inflater;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DictionaryCodecTest {
+
+    @TempDir
+    Path directory;
+
+    private CompressionProperties.Dictionary properties;
+    private CompressionDictionaries dictionaries;
+    private DictionaryCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CompressionProperties.Dictionary();
+        properties.setDirectory(directory.toString());
+        properties.setMinSamples(4);
+        properties.setRetrainEvery(4);
+        dictionaries = new CompressionDictionaries(properties, Runnable::run);
+        codec = new DictionaryCodec(dictionaries);
+    }
+
+    /** Small JSON event with the same structure as its peers and varying values. */
+    private static FileModel eventOf(int i) {
+        Random random = new Random(i);
+        String json = String.format("{\"eventType\":\"sensor.reading\",\"deviceId\":\"device-%04d\","
+                        + "\"timestamp\":\"2026-10-18T12:%02d:%02dZ\",\"temperatureCelsius\":%d.%d,"
+                        + "\"humidityPercent\":%d,\"firmwareVersion\":\"4.2.%d\",\"status\":\"OK\"}",
+                random.nextInt(10_000), random.nextInt(60), random.nextInt(60), random.nextInt(40),
+                random.nextInt(10), random.nextInt(100), random.nextInt(20));
+        return new FileModel("event-" + i, "event-" + i + ".json", json.getBytes(), "json", json.length());
+    }
+
+    private static FileOperation compressionFor(String tenant) {
+        return FileOperation.builder()
+                .operationType(OperationType.FILE_COMPRESSION)
+                .addParameter(DictionaryCodec.TENANT_PARAMETER, tenant)
+                .build();
+    }
+
+    private byte[] compress(FileModel file, String tenant) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.bind(file, compressionFor(tenant)).compress(file.data(), 9, out);
+        return out.toByteArray();
+    }
+
+    @Test
+    void bind_ShouldTrainDictionary_AfterMinSamples_AndImproveRatio() throws Exception {
+        FileModel probe = eventOf(1000);
+        int withoutDictionary = compress(probe, "acme").length;
+        for (int i = 0; i < 4; i++) {
+            compress(eventOf(i), "acme");
+        }
+
+        TrainedDictionary dictionary = dictionaries.current("acme", "json").orElseThrow();
+        byte[] compressed = compress(probe, "acme");
+
+        assertEquals("acme/json/v1", dictionary.id());
+        assertTrue(compressed.length < withoutDictionary,
+                compressed.length + " bytes with dictionary, " + withoutDictionary + " without");
+        assertEquals("codec=dictionary level=9 dictionary=acme/json/v1 dictId=" + dictionary.dictId(),
+                codec.bind(probe, compressionFor("acme")).describe(9));
+        assertTrue(dictionaries.current("other", "json").isEmpty());
+
+        // The zlib header names the dictionary, which is saved under the tenant and file type
+        Inflater inflater = new Inflater();
+        inflater.setInput(compressed);
+        byte[] restored = new byte[probe.data().size()];
+        assertEquals(0, inflater.inflate(restored));
+        assertTrue(inflater.needsDictionary());
+        assertEquals(dictionary.dictId(), String.format("%08x", inflater.getAdler()));
+        inflater.setDictionary(Files.readAllBytes(
+                directory.resolve("acme").resolve("json").resolve(dictionary.fileName())));
+        assertEquals(restored.length, inflater.inflate(restored));
+        inflater.end();
+        assertArrayEquals(probe.data().toByteArray(), restored);
+    }
+
+    @Test
+    void sample_ShouldVersionDictionaries_AndReloadLatestAfterRestart() {
+        IntStream.range(0, 12).forEach(i -> dictionaries.sample("acme", eventOf(i)));
+
+        assertEquals(3, dictionaries.current("acme", "json").orElseThrow().version());
+
+        CompressionDictionaries restarted = new CompressionDictionaries(properties, Runnable::run);
+        TrainedDictionary reloaded = restarted.current("acme", "json").orElseThrow();
+
+        assertEquals("acme/json/v3", reloaded.id());
+        assertArrayEquals(dictionaries.current("acme", "json").orElseThrow().bytes(), reloaded.bytes());
+    }
+
+    @Test
+    void sample_ShouldIgnoreLargeFiles_AndRejectUnsafeTenants() {
+        properties.setMaxSampleBytes(16);
+        IntStream.range(0, 8).forEach(i -> dictionaries.sample("acme", eventOf(i)));
+
+        assertTrue(dictionaries.current("acme", "json").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> dictionaries.sample("../etc", eventOf(0)));
+    }
+
+    @Test
+    void bind_ShouldSampleOnlyFilesThatWereCompressed() {
+        IntStream.range(0, 4).forEach(i -> codec.bind(eventOf(i), compressionFor("acme")));
+        OutputStream failing = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Disk full");
+            }
+        };
+        for (int i = 0; i < 4; i++) {
+            CompressionCodec bound = codec.bind(eventOf(i), compressionFor("acme"));
+            assertThrows(IOException.class, () -> bound.compress(eventOf(0).data(), 9, failing));
+        }
+
+        assertTrue(dictionaries.current("acme", "json").isEmpty());
+    }
+
+    @Test
+    void sample_ShouldBoundCorpora_AndReloadEvictedDictionaries() throws IOException {
+        properties.setMaxCorpora(2);
+        for (int i = 0; i < 4; i++) {
+            compress(eventOf(i), "acme");
+        }
+        TrainedDictionary trained = dictionaries.current("acme", "json").orElseThrow();
+        for (int tenant = 0; tenant < 16; tenant++) {
+            compress(eventOf(tenant), "tenant-" + tenant);
+        }
+
+        assertEquals(2, dictionaries.corpusCount());
+        assertEquals(trained.id(), dictionaries.current("acme", "json").orElseThrow().id());
+        assertEquals(2, dictionaries.corpusCount());
+    }
+
+    @Test
+    void sample_ShouldIgnoreTenantsOutsideTheAllowList() throws IOException {
+        properties.setTenants(List.of("acme"));
+        for (int i = 0; i < 4; i++) {
+            compress(eventOf(i), "acme");
+            compress(eventOf(i), "other");
+        }
+
+        assertTrue(dictionaries.current("acme", "json").isPresent());
+        assertTrue(dictionaries.current("other", "json").isEmpty());
+        assertEquals(1, dictionaries.corpusCount());
+        assertEquals("codec=dictionary level=9 dictionary=none",
+                codec.bind(eventOf(0), compressionFor("other")).describe(9));
+    }
+
+    @Test
+    void train_ShouldFavourSharedContent_AndRespectSize() {
+        List<byte[]> samples = IntStream.range(0, 16).mapToObj(i -> eventOf(i).data().toByteArray()).toList();
+
+        byte[] dictionary = DictionaryTrainer.train(samples, 256);
+        String text = new String(dictionary);
+
+        assertTrue(dictionary.length <= 256);
+        assertTrue(text.contains("eventType"), text);
+
+        byte[] unrelated = new byte[4096];
+        new Random(1).nextBytes(unrelated);
+        assertEquals(0, DictionaryTrainer.train(List.of(unrelated), 256).length);
+    }
+}
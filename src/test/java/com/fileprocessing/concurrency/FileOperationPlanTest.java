@@ -0,0 +1,150 @@
+package com.fileprocessing.concurrency;
+
+import com.fileprocessing.FileSpec.OperationType;
+import com.fileprocessing.model.FileModel;
+import com.fileprocessing.model.FileOperation;
+import com.fileprocessing.model.concurrency.FileTask;
+import com.fileprocessing.util.DecodedImageContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileOperationPlanTest {
+
+    private FileModel file;
+
+    @BeforeEach
+    void setUp() {
+        file = new FileModel("plan-1", "plan.png", "content".getBytes(), "png", 7);
+    }
+
+    private FileOperationPlan planOf(OperationType... types) {
+        List<FileOperation> operations = Arrays.stream(types)
+                .map(type -> FileOperation.builder().operationType(type).parameters(Map.of()).build())
+                .toList();
+        return FileOperationPlan.of(file, operations);
+    }
+
+    private static FileTask taskOf(FileOperationPlan plan, OperationType type) {
+        return plan.tasks().stream()
+                .filter(task -> task.operation().operationType() == type)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    void of_ShouldCreateOneTaskPerOperation_InRequestOrder() {
+        FileOperationPlan plan = planOf(OperationType.STORAGE, OperationType.VALIDATE, OperationType.IMAGE_RESIZE);
+
+        assertEquals(3, plan.tasks().size());
+        assertEquals(OperationType.STORAGE, plan.tasks().get(0).operation().operationType());
+        assertSame(file, plan.file());
+    }
+
+    @Test
+    void dependenciesOf_ShouldGateEverythingOnValidate() {
+        FileOperationPlan plan = planOf(OperationType.VALIDATE, OperationType.METADATA_EXTRACTION,
+                OperationType.FILE_COMPRESSION);
+        FileTask validate = taskOf(plan, OperationType.VALIDATE);
+
+        assertTrue(plan.dependenciesOf(validate).isEmpty());
+        assertEquals(List.of(validate), plan.dependenciesOf(taskOf(plan, OperationType.METADATA_EXTRACTION)));
+        assertEquals(List.of(validate), plan.dependenciesOf(taskOf(plan, OperationType.FILE_COMPRESSION)));
+    }
+
+    @Test
+    void dependenciesOf_ShouldChainTransformsBeforeStorage() {
+        FileOperationPlan plan = planOf(OperationType.STORAGE, OperationType.FORMAT_CONVERSION,
+                OperationType.IMAGE_RESIZE);
+        FileTask resize = taskOf(plan, OperationType.IMAGE_RESIZE);
+        FileTask convert = taskOf(plan, OperationType.FORMAT_CONVERSION);
+
+        assertTrue(plan.dependenciesOf(resize).isEmpty());
+        assertEquals(List.of(resize), plan.dependenciesOf(convert));
+        assertEquals(List.of(resize, convert), plan.dependenciesOf(taskOf(plan, OperationType.STORAGE)));
+    }
+
+    @Test
+    void dependenciesOf_ShouldNotChainTransforms_ForNonImageFiles() {
+        file = new FileModel("plan-2", "plan.pdf", "%PDF-1.7".getBytes(), "pdf", 8);
+        FileOperationPlan plan = planOf(OperationType.VALIDATE, OperationType.IMAGE_RESIZE,
+                OperationType.FORMAT_CONVERSION, OperationType.STORAGE);
+        FileTask validate = taskOf(plan, OperationType.VALIDATE);
+        FileTask storage = taskOf(plan, OperationType.STORAGE);
+
+        assertEquals(List.of(validate), plan.dependenciesOf(taskOf(plan, OperationType.FORMAT_CONVERSION)));
+        assertEquals(List.of(validate), plan.dependenciesOf(storage));
+        assertSame(file, plan.inputOf(storage));
+    }
+
+    @Test
+    void fusedCompressionOf_ShouldChainStorageAfterCompression_WhenFused() {
+        List<FileOperation> operations = Arrays.stream(new OperationType[]{
+                        OperationType.VALIDATE, OperationType.FILE_COMPRESSION, OperationType.STORAGE})
+                .map(type -> FileOperation.builder().operationType(type).parameters(Map.of()).build())
+                .toList();
+        FileOperationPlan plan = FileOperationPlan.of(file, operations, true);
+        FileTask validate = taskOf(plan, OperationType.VALIDATE);
+        FileTask compression = taskOf(plan, OperationType.FILE_COMPRESSION);
+        FileTask storage = taskOf(plan, OperationType.STORAGE);
+
+        assertTrue(plan.storesOutput(compression));
+        assertEquals(List.of(validate, compression), plan.dependenciesOf(storage));
+        assertEquals(Optional.of(compression), plan.fusedCompressionOf(storage));
+        assertEquals(Optional.empty(), plan.fusedCompressionOf(compression));
+        assertEquals(List.of(validate), plan.requiredDependenciesOf(storage));
+        assertEquals(List.of(validate), plan.requiredDependenciesOf(compression));
+    }
+
+    @Test
+    void fusedCompressionOf_ShouldBeEmpty_WhenStorageReadsTransformOutput() {
+        List<FileOperation> operations = Arrays.stream(new OperationType[]{
+                        OperationType.IMAGE_RESIZE, OperationType.FILE_COMPRESSION, OperationType.STORAGE})
+                .map(type -> FileOperation.builder().operationType(type).parameters(Map.of()).build())
+                .toList();
+        FileOperationPlan plan = FileOperationPlan.of(file, operations, true);
+        FileTask storage = taskOf(plan, OperationType.STORAGE);
+
+        assertFalse(plan.storesOutput(taskOf(plan, OperationType.FILE_COMPRESSION)));
+        assertEquals(Optional.empty(), plan.fusedCompressionOf(storage));
+        assertEquals(List.of(taskOf(plan, OperationType.IMAGE_RESIZE)), plan.dependenciesOf(storage));
+    }
+
+    @Test
+    void dependenciesOf_ShouldBeEmpty_WithoutValidate() {
+        FileOperationPlan plan = planOf(OperationType.METADATA_EXTRACTION, OperationType.OCR_TEXT_EXTRACTION);
+
+        plan.tasks().forEach(task -> assertTrue(plan.dependenciesOf(task).isEmpty()));
+    }
+
+    @Test
+    void inputOf_ShouldReturnProducerOutput_OnceRecorded() {
+        FileOperationPlan plan = planOf(OperationType.IMAGE_RESIZE, OperationType.STORAGE);
+        FileTask resize = taskOf(plan, OperationType.IMAGE_RESIZE);
+        FileTask storage = taskOf(plan, OperationType.STORAGE);
+        FileModel resized = new FileModel("plan-1", "plan_resized.png", "small".getBytes(), "png", 5);
+
+        assertSame(file, plan.inputOf(resize));
+        assertThrows(IllegalStateException.class, () -> plan.inputOf(storage));
+
+        plan.recordOutput(resize, resized);
+
+        assertSame(resized, plan.inputOf(storage));
+        assertSame(resized, plan.imageContextOf(storage).file());
+    }
+
+    @Test
+    void imageContextOf_ShouldShareOriginalContextAcrossReaders() {
+        FileOperationPlan plan = planOf(OperationType.VALIDATE, OperationType.METADATA_EXTRACTION);
+        DecodedImageContext validateImages = plan.imageContextOf(taskOf(plan, OperationType.VALIDATE));
+
+        assertSame(validateImages, plan.imageContextOf(taskOf(plan, OperationType.METADATA_EXTRACTION)));
+        assertSame(file, validateImages.file());
+    }
+}
@@ -0,0 +1,111 @@
+package com.fileprocessing.concurrency;
+
+import com.fileprocessing.FileSpec.OperationType;
+import com.fileprocessing.config.ThreadPoolProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThreadPoolManagerTest {
+
+    private ThreadPoolManager manager;
+
+    @AfterEach
+    void tearDown() {
+        if (manager != null) {
+            manager.shutdown();
+        }
+    }
+
+    private static String threadNameOf(ThreadPoolManager manager, OperationClass operationClass) throws Exception {
+        return manager.submit(operationClass, () -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void submit_ShouldRunEachClassOnItsOwnPool() throws Exception {
+        manager = new ThreadPoolManager(new ThreadPoolProperties());
+
+        assertTrue(threadNameOf(manager, OperationClass.CPU).startsWith("file-cpu-thread-"));
+        assertTrue(threadNameOf(manager, OperationClass.IO).startsWith("file-io-thread-"));
+        assertTrue(threadNameOf(manager, OperationClass.EXTERNAL).startsWith("file-external-thread-"));
+        assertTrue(manager.submit(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS)
+                .startsWith("file-cpu-thread-"));
+    }
+
+    @Test
+    void submit_ShouldIsolateClasses_WhenOnePoolIsBusy() throws Exception {
+        ThreadPoolProperties properties = new ThreadPoolProperties();
+        properties.setExternal(new ThreadPoolProperties.Pool(1, 1, 10, 5));
+        manager = new ThreadPoolManager(properties);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        manager.submit(OperationClass.EXTERNAL, () -> {
+            started.countDown();
+            release.await();
+            return null;
+        });
+        manager.submit(OperationClass.EXTERNAL, () -> null);
+
+        try {
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            // CPU work still completes while the external pool is fully occupied
+            assertTrue(threadNameOf(manager, OperationClass.CPU).startsWith("file-cpu-thread-"));
+            assertEquals(1, manager.getActiveCount(OperationClass.EXTERNAL));
+            assertEquals(1, manager.getQueueSize(OperationClass.EXTERNAL));
+            assertEquals(0, manager.getQueueSize(OperationClass.CPU));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void submit_ShouldUseVirtualThreadsForBlockingClasses_OnlyWhenSupported() throws Exception {
+        ThreadPoolProperties properties = new ThreadPoolProperties();
+        properties.setVirtualThreads(true);
+        manager = new ThreadPoolManager(properties);
+
+        boolean supported = Runtime.version().feature() >= 21;
+        assertEquals(supported, manager.isVirtual(OperationClass.IO));
+        assertEquals(supported, threadNameOf(manager, OperationClass.IO).startsWith("file-io-vthread-"));
+        assertFalse(manager.isVirtual(OperationClass.CPU));
+    }
+
+    @Test
+    void submit_ShouldRunOnWorkStealingPool_WhenSelected() throws Exception {
+        ThreadPoolProperties properties = new ThreadPoolProperties();
+        properties.setExecutorType(ThreadPoolProperties.ExecutorType.WORK_STEALING);
+        manager = new ThreadPoolManager(properties);
+
+        assertTrue(manager.isWorkStealing());
+        assertTrue(threadNameOf(manager, OperationClass.CPU).startsWith("file-cpu-ws-thread-"));
+        assertTrue(manager.getQueueSize() >= 0);
+        assertTrue(manager.getActiveCount() >= 0);
+    }
+
+    @Test
+    void submit_ShouldRunOnCaller_WhenWorkStealingPoolSaturated() throws Exception {
+        ThreadPoolProperties properties = new ThreadPoolProperties();
+        properties.setExecutorType(ThreadPoolProperties.ExecutorType.WORK_STEALING);
+        properties.setQueueCapacity(0);
+        manager = new ThreadPoolManager(properties);
+
+        Thread caller = Thread.currentThread();
+        Thread runner = manager.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+
+        assertSame(caller, runner);
+    }
+
+    @Test
+    void operationClassOf_ShouldMapOperationTypes() {
+        assertEquals(OperationClass.CPU, OperationClass.of(OperationType.IMAGE_RESIZE));
+        assertEquals(OperationClass.CPU, OperationClass.of(OperationType.VALIDATE));
+        assertEquals(OperationClass.IO, OperationClass.of(OperationType.STORAGE));
+        assertEquals(OperationClass.IO, OperationClass.of(OperationType.FILE_COMPRESSION));
+        assertEquals(OperationClass.EXTERNAL, OperationClass.of(OperationType.OCR_TEXT_EXTRACTION));
+    }
+}
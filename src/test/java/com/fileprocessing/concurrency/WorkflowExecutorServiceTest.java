@@ -0,0 +1,259 @@
+package com.fileprocessing.concurrency;
+
+import com.fileprocessing.FileSpec.OperationStatus;
+import com.fileprocessing.FileSpec.OperationType;
+import com.fileprocessing.compression.CompressionCodecs;
+import com.fileprocessing.compression.DeflateCodec;
+import com.fileprocessing.compression.GzipCodec;
+import com.fileprocessing.compression.SnappyCodec;
+import com.fileprocessing.config.CompressionProperties;
+import com.fileprocessing.config.StorageProperties;
+import com.fileprocessing.config.ThreadPoolProperties;
+import com.fileprocessing.model.FileModel;
+import com.fileprocessing.model.FileOperationResultModel;
+import com.fileprocessing.model.FileProcessingRequestModel;
+import com.fileprocessing.model.FileProcessingSummaryModel;
+import com.fileprocessing.service.monitoring.FileProcessingMetrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkflowExecutorServiceTest {
+
+    private static final List<OperationType> OPERATIONS = List.of(
+            OperationType.VALIDATE,
+            OperationType.METADATA_EXTRACTION,
+            OperationType.IMAGE_RESIZE,
+            OperationType.FORMAT_CONVERSION);
+
+    private ThreadPoolManager threadPoolManager;
+    private SimpleMeterRegistry registry;
+    private FileProcessingMetrics metrics;
+    private WorkflowExecutorService workflowExecutor;
+
+    @TempDir
+    Path storageRoot;
+
+    @BeforeEach
+    void setUp() {
+        threadPoolManager = new ThreadPoolManager(new ThreadPoolProperties());
+        registry = new SimpleMeterRegistry();
+        metrics = new FileProcessingMetrics(registry);
+        CompressionProperties compressionProperties = new CompressionProperties();
+        compressionProperties.setOutputDirectory(storageRoot.resolve("compressed").toString());
+        StorageProperties storageProperties = new StorageProperties();
+        storageProperties.setDirectory(storageRoot.toString());
+        CompressionCodecs codecs = new CompressionCodecs(List.of(
+                new GzipCodec(compressionProperties, threadPoolManager),
+                new DeflateCodec(compressionProperties),
+                new SnappyCodec()), compressionProperties);
+        workflowExecutor = new WorkflowExecutorService(threadPoolManager, metrics, compressionProperties, codecs,
+                storageProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        threadPoolManager.shutdown();
+    }
+
+    private static FileProcessingRequestModel requestOf(FileModel file) {
+        return new FileProcessingRequestModel(List.of(file), OPERATIONS, Map.of());
+    }
+
+    private static Map<OperationType, FileOperationResultModel> byOperation(List<FileOperationResultModel> results) {
+        return results.stream().collect(Collectors.toMap(FileOperationResultModel::operationType, Function.identity()));
+    }
+
+    @Test
+    void processWorkflow_ShouldSkipDependents_WhenValidationFails() {
+        FileModel invalid = new FileModel("wf-1", "payload.exe", "not allowed".getBytes(), "exe", 11);
+
+        FileProcessingSummaryModel summary = workflowExecutor.processWorkflow(requestOf(invalid));
+        Map<OperationType, FileOperationResultModel> results = byOperation(summary.results());
+
+        assertEquals(OperationStatus.FAILED, results.get(OperationType.VALIDATE).status());
+        assertEquals(OperationStatus.SKIPPED, results.get(OperationType.METADATA_EXTRACTION).status());
+        assertEquals(OperationStatus.SKIPPED, results.get(OperationType.IMAGE_RESIZE).status());
+        assertEquals(OperationStatus.SKIPPED, results.get(OperationType.FORMAT_CONVERSION).status());
+        assertEquals(0, summary.successfulFiles());
+        assertEquals(1, summary.failedFiles());
+        assertEquals(3, metrics.getSkippedTasks());
+    }
+
+    @Test
+    void processWorkflow_ShouldRecordOperationLatency_ByTypeAndStatus() {
+        FileModel invalid = new FileModel("wf-4", "payload.exe", "not allowed".getBytes(), "exe", 11);
+
+        workflowExecutor.processWorkflow(requestOf(invalid));
+
+        Timer validate = registry.find("fileprocessing.operation.duration")
+                .tags("operation", "VALIDATE", "status", "FAILED")
+                .timer();
+        assertNotNull(validate);
+        assertEquals(1, validate.count());
+        // Skipped operations never ran, so they have no latency to report
+        assertNull(registry.find("fileprocessing.operation.duration").tag("status", "SKIPPED").timer());
+    }
+
+    @Test
+    void processWorkflow_ShouldChainTransforms_WhenValidationSucceeds() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(1600, 1200, BufferedImage.TYPE_INT_RGB), "png", baos);
+        FileModel image = new FileModel("wf-2", "photo.png", baos.toByteArray(), "png", baos.size());
+
+        FileProcessingSummaryModel summary = workflowExecutor.processWorkflow(requestOf(image));
+
+        summary.results().forEach(result -> assertEquals(OperationStatus.SUCCESS, result.status(),
+                result.operationType() + ": " + result.details()));
+        assertEquals(OPERATIONS.size(), summary.successfulFiles());
+        assertEquals(0, metrics.getSkippedTasks());
+    }
+
+    @Test
+    void processWorkflow_ShouldCompressStraightIntoStorage_WhenFused() throws IOException {
+        byte[] content = "archive me ".repeat(500).getBytes();
+        FileModel file = new FileModel("wf-5", "notes.png", content, "png", content.length);
+        FileProcessingRequestModel request = new FileProcessingRequestModel(List.of(file),
+                List.of(OperationType.FILE_COMPRESSION, OperationType.STORAGE), Map.of());
+
+        Map<OperationType, FileOperationResultModel> results =
+                byOperation(workflowExecutor.processWorkflow(request).results());
+        FileOperationResultModel compression = results.get(OperationType.FILE_COMPRESSION);
+        FileOperationResultModel storage = results.get(OperationType.STORAGE);
+
+        assertEquals(OperationStatus.SUCCESS, compression.status(), compression.details());
+        assertEquals(OperationStatus.SUCCESS, storage.status(), storage.details());
+        assertEquals(compression.resultLocation(), storage.resultLocation());
+        assertTrue(storage.resultLocation().endsWith("wf-5_notes.png.gz"));
+        assertTrue(Path.of(storage.resultLocation()).startsWith(storageRoot));
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(Path.of(storage.resultLocation())))) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void processWorkflow_ShouldCompressWithRequestedCodec_AndReportRatio() {
+        byte[] content = "tenant payload ".repeat(200).getBytes();
+        FileModel file = new FileModel("wf-6", "report.txt", content, "txt", content.length);
+        FileProcessingRequestModel request = FileProcessingRequestModel.builder()
+                .addFile(file)
+                .addDefaultOperation(OperationType.FILE_COMPRESSION)
+                .addOperationParameter(OperationType.FILE_COMPRESSION, CompressionCodecs.CODEC_PARAMETER, "snappy")
+                .build();
+
+        FileOperationResultModel result = workflowExecutor.processWorkflow(request).results().get(0);
+
+        assertEquals(OperationStatus.SUCCESS, result.status(), result.details());
+        assertTrue(result.details().startsWith("Compressed with codec=snappy ratio="), result.details());
+        assertEquals(storageRoot.resolve("compressed").resolve("wf-6_report.txt.sz"), Path.of(result.resultLocation()));
+    }
+
+    @Test
+    void processWorkflow_ShouldFailCompression_ForUnknownCodec() {
+        byte[] content = "payload".getBytes();
+        FileModel file = new FileModel("wf-7", "report.txt", content, "txt", content.length);
+        FileProcessingRequestModel request = FileProcessingRequestModel.builder()
+                .addFile(file)
+                .addDefaultOperation(OperationType.FILE_COMPRESSION)
+                .addOperationParameter(OperationType.FILE_COMPRESSION, CompressionCodecs.CODEC_PARAMETER, "zip")
+                .build();
+
+        FileOperationResultModel result = workflowExecutor.processWorkflow(request).results().get(0);
+
+        assertEquals(OperationStatus.FAILED, result.status());
+        assertTrue(result.details().contains("Unknown compression codec: zip"), result.details());
+    }
+
+    @Test
+    void processWorkflow_ShouldStoreOriginal_WhenFusedCompressionFails() throws IOException {
+        byte[] content = "keep me ".repeat(100).getBytes();
+        FileModel file = new FileModel("wf-9", "keep.txt", content, "txt", content.length);
+        FileProcessingRequestModel request = FileProcessingRequestModel.builder()
+                .addFile(file)
+                .addDefaultOperation(OperationType.FILE_COMPRESSION)
+                .addDefaultOperation(OperationType.STORAGE)
+                .addOperationParameter(OperationType.FILE_COMPRESSION, CompressionCodecs.CODEC_PARAMETER, "zip")
+                .build();
+
+        Map<OperationType, FileOperationResultModel> results =
+                byOperation(workflowExecutor.processWorkflow(request).results());
+        FileOperationResultModel storage = results.get(OperationType.STORAGE);
+
+        assertEquals(OperationStatus.FAILED, results.get(OperationType.FILE_COMPRESSION).status());
+        assertEquals(OperationStatus.SUCCESS, storage.status(), storage.details());
+        assertTrue(storage.details().contains("FILE_COMPRESSION did not succeed"), storage.details());
+        assertArrayEquals(content, Files.readAllBytes(Path.of(storage.resultLocation())));
+        assertEquals(0, metrics.getSkippedTasks());
+    }
+
+    @Test
+    void processWorkflow_ShouldDecodeOnValidation_OnlyWhenDeep() throws IOException {
+        // Well-formed chunks with valid CRCs, but the IDAT payload is not a zlib stream
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(baos);
+        out.write(new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'});
+        writeChunk(out, "IHDR", new byte[]{0, 0, 0, 1, 0, 0, 0, 1, 8, 2, 0, 0, 0});
+        writeChunk(out, "IDAT", "not deflated".getBytes(StandardCharsets.US_ASCII));
+        writeChunk(out, "IEND", new byte[0]);
+        FileModel file = new FileModel("wf-8", "pixel.png", baos.toByteArray(), "png", baos.size());
+
+        FileOperationResultModel fast = workflowExecutor.processWorkflow(FileProcessingRequestModel.builder()
+                .addFile(file)
+                .addDefaultOperation(OperationType.VALIDATE)
+                .build()).results().get(0);
+        FileOperationResultModel deep = workflowExecutor.processWorkflow(FileProcessingRequestModel.builder()
+                .addFile(file)
+                .addDefaultOperation(OperationType.VALIDATE)
+                .addOperationParameter(OperationType.VALIDATE, WorkflowExecutorService.VALIDATION_LEVEL_PARAMETER, "deep")
+                .build()).results().get(0);
+
+        assertEquals(OperationStatus.SUCCESS, fast.status(), fast.details());
+        assertEquals(OperationStatus.FAILED, deep.status());
+    }
+
+    private static void writeChunk(DataOutputStream out, String type, byte[] data) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+        out.writeInt(data.length);
+        out.write(typeBytes);
+        out.write(data);
+        out.writeInt((int) crc.getValue());
+    }
+
+    @Test
+    void processWorkflowStreamed_ShouldDeliverSkippedResults() {
+        FileModel invalid = new FileModel("wf-3", "payload.exe", "not allowed".getBytes(), "exe", 11);
+        List<FileOperationResultModel> delivered = new CopyOnWriteArrayList<>();
+
+        workflowExecutor.processWorkflowStreamed(requestOf(invalid), delivered::add).join();
+        Map<OperationType, FileOperationResultModel> results = byOperation(delivered);
+
+        assertEquals(OPERATIONS.size(), delivered.size());
+        assertEquals(OperationStatus.FAILED, results.get(OperationType.VALIDATE).status());
+        assertEquals(OperationStatus.SKIPPED, results.get(OperationType.FORMAT_CONVERSION).status());
+    }
+}
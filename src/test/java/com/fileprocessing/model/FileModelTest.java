@@ -1,7 +1,14 @@
 package com.fileprocessing.model;
 
+import com.google.protobuf.ByteString;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class FileModelTest {
@@ -44,7 +51,7 @@ class FileModelTest {
 
     @Test
     void constructor_ShouldDefaultContentToEmptyArray_WhenNull() {
-        FileModel file = new FileModel("id", "file.txt", null, "txt", 0);
+        FileModel file = new FileModel("id", "file.txt", (byte[]) null, "txt", 0);
         assertNotNull(file.content());
         assertEquals(0, file.content().length);
     }
@@ -64,6 +71,61 @@ class FileModelTest {
         assertEquals(1, file.content()[0]);
     }
 
+    @Test
+    void contentBuffer_ShouldBeReadOnlyView() {
+        FileModel file = new FileModel("id", "file.txt", SAMPLE_CONTENT, "txt", 4);
+        ByteBuffer buffer = file.contentBuffer();
+
+        assertTrue(buffer.isReadOnly());
+        assertEquals(SAMPLE_CONTENT.length, buffer.remaining());
+        assertThrows(ReadOnlyBufferException.class, () -> buffer.put(0, (byte) 99));
+        assertEquals(1, file.content()[0]);
+    }
+
+    @Test
+    void contentBuffers_ShouldExposeChunksOfConcatenatedContent() {
+        // Large enough for concat to build a rope rather than copy
+        byte[] second = new byte[256];
+        second[0] = 3;
+        ByteString data = ByteString.copyFrom(new byte[256]).concat(ByteString.copyFrom(second));
+        FileModel file = FileModel.builder()
+                .fileId("id")
+                .fileName("file.txt")
+                .data(data)
+                .fileType("txt")
+                .sizeBytes(512)
+                .build();
+
+        List<ByteBuffer> buffers = file.contentBuffers();
+
+        assertEquals(2, buffers.size());
+        assertTrue(buffers.stream().allMatch(ByteBuffer::isReadOnly));
+        assertEquals(256, buffers.get(0).remaining());
+        assertEquals(3, buffers.get(1).get(0));
+    }
+
+    @Test
+    void contentStream_ShouldReturnContent() throws IOException {
+        FileModel file = new FileModel("id", "file.txt", SAMPLE_CONTENT, "txt", 4);
+        try (InputStream is = file.contentStream()) {
+            assertArrayEquals(SAMPLE_CONTENT, is.readAllBytes());
+        }
+    }
+
+    @Test
+    void builderData_ShouldShareContentWithoutCopy() {
+        ByteString data = ByteString.copyFrom(SAMPLE_CONTENT);
+        FileModel file = FileModel.builder()
+                .fileId("id")
+                .fileName("file.txt")
+                .data(data)
+                .fileType("txt")
+                .sizeBytes(4)
+                .build();
+
+        assertSame(data, file.data());
+    }
+
     @Test
     void builder_ShouldProduceEquivalentObject() {
         FileModel file = FileModel.builder()
@@ -128,6 +128,20 @@ class FileProcessingRequestModelTest {
         assertEquals(List.of(OperationType.IMAGE_RESIZE), model.fileSpecificOperations().get("f2"));
     }
 
+    @Test
+    void builder_ShouldGroupOperationParametersByOperation() {
+        FileProcessingRequestModel model = FileProcessingRequestModel.builder()
+                .addFile(createFile("f1"))
+                .addOperationParameter(OperationType.FILE_COMPRESSION, "codec", "deflate")
+                .addOperationParameter(OperationType.FILE_COMPRESSION, "level", "9")
+                .build();
+
+        assertEquals(Map.of("codec", "deflate", "level", "9"), model.parametersOf(OperationType.FILE_COMPRESSION));
+        assertTrue(model.parametersOf(OperationType.VALIDATE).isEmpty());
+        assertThrows(UnsupportedOperationException.class, () ->
+                model.operationParameters().put(OperationType.VALIDATE, Map.of()));
+    }
+
     // =======================
     // Edge Cases
     // =======================
@@ -1,5 +1,6 @@
 package com.fileprocessing.service;
 
+import com.fileprocessing.FileSpec.FileChunkUploadRequest;
 import com.fileprocessing.FileSpec.FileUploadRequest;
 import com.fileprocessing.FileSpec.File;
 import com.fileprocessing.FileSpec.FileOperationResult;
@@ -23,6 +24,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -75,8 +77,8 @@ class FileProcessingServiceImplTest {
                 0, // failedFiles
                 Collections.emptyList() // results
         );
-        when(processFileService.processFiles(any(FileProcessingRequestModel.class)))
-                .thenReturn(mockSummaryModel);
+        when(processFileService.processFilesAsync(any(FileProcessingRequestModel.class)))
+                .thenReturn(CompletableFuture.completedFuture(mockSummaryModel));
 
         // When
         service.processFile(request, responseObserver);
@@ -84,7 +86,7 @@ class FileProcessingServiceImplTest {
         // Then
         verify(processingMetrics).incrementActiveRequests();
         verify(processingMetrics).decrementActiveRequests();
-        verify(processingMetrics).recordRequestCompletion(anyLong());
+        verify(processingMetrics).recordRequestCompletion(eq("ProcessFile"), anyLong());
         verify(processingMetrics, never()).incrementFailedRequests();
 
         verify(responseObserver).onNext(any(FileProcessingSummary.class));
@@ -105,7 +107,7 @@ class FileProcessingServiceImplTest {
                 .build();
 
         RuntimeException mockException = new RuntimeException("Processing failed");
-        when(processFileService.processFiles(any(FileProcessingRequestModel.class)))
+        when(processFileService.processFilesAsync(any(FileProcessingRequestModel.class)))
                 .thenThrow(mockException);
 
         // When
@@ -114,7 +116,7 @@ class FileProcessingServiceImplTest {
         // Then
         verify(processingMetrics).incrementActiveRequests();
         verify(processingMetrics).decrementActiveRequests();
-        verify(processingMetrics).recordRequestCompletion(anyLong());
+        verify(processingMetrics).recordRequestCompletion(eq("ProcessFile"), anyLong());
         verify(processingMetrics).incrementFailedRequests();
 
         verify(responseObserver, never()).onNext(any());
@@ -140,8 +142,9 @@ class FileProcessingServiceImplTest {
                         .build())
                 .build();
 
-        when(processFileService.processFiles(any(FileProcessingRequestModel.class)))
-                .thenReturn(new FileProcessingSummaryModel(1, 1, 0, Collections.emptyList()));
+        when(processFileService.processFilesAsync(any(FileProcessingRequestModel.class)))
+                .thenReturn(CompletableFuture.completedFuture(
+                        new FileProcessingSummaryModel(1, 1, 0, Collections.emptyList())));
 
         // When
         service.processFile(request, responseObserver);
@@ -149,7 +152,112 @@ class FileProcessingServiceImplTest {
         // Then
         verify(processingMetrics).incrementActiveRequests();
         verify(processingMetrics).decrementActiveRequests();
-        verify(processingMetrics).recordRequestCompletion(anyLong());
+        verify(processingMetrics).recordRequestCompletion(eq("ProcessFile"), anyLong());
+    }
+
+    @Test
+    void processFile_RespondsOnlyWhenWorkflowCompletes() {
+        // Given
+        FileProcessingRequest request = FileProcessingRequest.newBuilder()
+                .addFiles(File.newBuilder()
+                        .setFileId("test-id")
+                        .setFileName("test.txt")
+                        .setFileType("txt")
+                        .setSizeBytes(100)
+                        .build())
+                .build();
+        CompletableFuture<FileProcessingSummaryModel> pending = new CompletableFuture<>();
+        when(processFileService.processFilesAsync(any(FileProcessingRequestModel.class))).thenReturn(pending);
+
+        // When
+        service.processFile(request, responseObserver);
+
+        // Then the handler returns without responding or closing the request
+        verify(responseObserver, never()).onNext(any());
+        verify(responseObserver, never()).onCompleted();
+        verify(processingMetrics, never()).decrementActiveRequests();
+
+        pending.complete(new FileProcessingSummaryModel(1, 1, 0, Collections.emptyList()));
+
+        verify(responseObserver).onNext(any(FileProcessingSummary.class));
+        verify(responseObserver).onCompleted();
+        verify(processingMetrics).decrementActiveRequests();
+        verify(processingMetrics).recordRequestCompletion(eq("ProcessFile"), anyLong());
+    }
+
+    @Test
+    void processFile_HandlesAsynchronousFailure() {
+        // Given
+        FileProcessingRequest request = FileProcessingRequest.newBuilder()
+                .addFiles(File.newBuilder()
+                        .setFileId("test-id")
+                        .setFileName("test.txt")
+                        .build())
+                .build();
+        CompletableFuture<FileProcessingSummaryModel> pending = new CompletableFuture<>();
+        when(processFileService.processFilesAsync(any(FileProcessingRequestModel.class))).thenReturn(pending);
+
+        // When
+        service.processFile(request, responseObserver);
+        pending.completeExceptionally(new IllegalStateException("Workflow failed"));
+
+        // Then
+        verify(processingMetrics).incrementFailedRequests();
+        verify(processingMetrics).decrementActiveRequests();
+        verify(responseObserver, never()).onCompleted();
+
+        ArgumentCaptor<StatusRuntimeException> errorCaptor = ArgumentCaptor.forClass(StatusRuntimeException.class);
+        verify(responseObserver).onError(errorCaptor.capture());
+        assertEquals(Status.Code.INTERNAL, errorCaptor.getValue().getStatus().getCode());
+        assertTrue(errorCaptor.getValue().getMessage().contains("Workflow failed"));
+    }
+
+    @Test
+    void processFile_RejectsParameterOfUnknownOperation() {
+        // Given
+        FileProcessingRequest request = FileProcessingRequest.newBuilder()
+                .addFiles(File.newBuilder()
+                        .setFileId("test-id")
+                        .setFileName("test.txt")
+                        .build())
+                .putOperationParameters("COMPRESS.codec", "gzip")
+                .build();
+
+        // When
+        service.processFile(request, responseObserver);
+
+        // Then
+        verifyNoInteractions(processFileService);
+        verify(processingMetrics).incrementFailedRequests();
+        verify(processingMetrics).decrementActiveRequests();
+        verify(processingMetrics).recordRequestCompletion(eq("ProcessFile"), anyLong());
+
+        ArgumentCaptor<StatusRuntimeException> errorCaptor = ArgumentCaptor.forClass(StatusRuntimeException.class);
+        verify(responseObserver).onError(errorCaptor.capture());
+        assertEquals(Status.Code.INVALID_ARGUMENT, errorCaptor.getValue().getStatus().getCode());
+        assertTrue(errorCaptor.getValue().getMessage().contains("Unknown operation COMPRESS"));
+    }
+
+    @Test
+    void streamFileOperations_RejectsMalformedParameter() {
+        // Given
+        FileProcessingRequest request = FileProcessingRequest.newBuilder()
+                .putOperationParameters("codec", "gzip")
+                .build();
+        @SuppressWarnings("unchecked")
+        StreamObserver<FileOperationResult> observer = mock(StreamObserver.class);
+
+        // When
+        service.streamFileOperations(request, observer);
+
+        // Then
+        verifyNoInteractions(streamFileOperationsService);
+        verify(processingMetrics).incrementFailedRequests();
+        verify(processingMetrics).decrementActiveRequests();
+
+        ArgumentCaptor<StatusRuntimeException> errorCaptor = ArgumentCaptor.forClass(StatusRuntimeException.class);
+        verify(observer).onError(errorCaptor.capture());
+        assertEquals(Status.Code.INVALID_ARGUMENT, errorCaptor.getValue().getStatus().getCode());
     }
 
     @Test
@@ -173,6 +281,8 @@ class FileProcessingServiceImplTest {
         verify(processingMetrics).incrementActiveRequests();
         verify(streamFileOperationsService).streamFileOperations(any(FileProcessingRequestModel.class), eq(observer), anyLong());
         verify(processingMetrics, never()).incrementFailedRequests();
+        verify(processingMetrics, never()).decrementActiveRequests();
+        verify(processingMetrics, never()).recordRequestCompletion(any(), anyLong());
     }
 
     @Test
@@ -198,7 +308,7 @@ class FileProcessingServiceImplTest {
         verify(processingMetrics).incrementActiveRequests();
         verify(processingMetrics).incrementFailedRequests();
         verify(processingMetrics).decrementActiveRequests();
-        verify(processingMetrics).recordRequestCompletion(anyLong());
+        verify(processingMetrics).recordRequestCompletion(eq("StreamFileOperations"), anyLong());
 
         ArgumentCaptor<StatusRuntimeException> errorCaptor = ArgumentCaptor.forClass(StatusRuntimeException.class);
         verify(observer).onError(errorCaptor.capture());
@@ -243,7 +353,7 @@ class FileProcessingServiceImplTest {
         verify(processingMetrics).incrementActiveRequests();
         verify(processingMetrics).incrementFailedRequests();
         verify(processingMetrics).decrementActiveRequests();
-        verify(processingMetrics).recordRequestCompletion(anyLong());
+        verify(processingMetrics).recordRequestCompletion(eq("UploadFiles"), anyLong());
 
         ArgumentCaptor<StatusRuntimeException> errorCaptor = ArgumentCaptor.forClass(StatusRuntimeException.class);
         verify(responseObserver).onError(errorCaptor.capture());
@@ -267,7 +377,8 @@ class FileProcessingServiceImplTest {
         // Then
         verify(processingMetrics).incrementActiveRequests();
         verify(processingMetrics).decrementActiveRequests();
-        verify(processingMetrics).recordRequestCompletion(anyLong());
+        // Recorded by the live service when the stream terminates, not when the handler returns
+        verify(processingMetrics, never()).recordRequestCompletion(any(), anyLong());
         verify(liveFileProcessingService).liveFileProcessing(observer);
         assertEquals(expectedStreamObserver, result);
         verify(processingMetrics, never()).incrementFailedRequests();
@@ -288,7 +399,7 @@ class FileProcessingServiceImplTest {
         verify(processingMetrics).incrementActiveRequests();
         verify(processingMetrics).incrementFailedRequests();
         verify(processingMetrics).decrementActiveRequests();
-        verify(processingMetrics).recordRequestCompletion(anyLong());
+        verify(processingMetrics).recordRequestCompletion(eq("LiveFileProcessing"), anyLong());
 
         ArgumentCaptor<StatusRuntimeException> errorCaptor = ArgumentCaptor.forClass(StatusRuntimeException.class);
         verify(observer).onError(errorCaptor.capture());
@@ -297,4 +408,45 @@ class FileProcessingServiceImplTest {
         assertTrue(capturedError.getMessage().contains("Test exception"));
         assertNull(result);
     }
+
+    @Test
+    void uploadFileChunks_DelegatesCorrectly() {
+        // Given
+        @SuppressWarnings("unchecked")
+        StreamObserver<FileChunkUploadRequest> expectedStreamObserver = mock(StreamObserver.class);
+        when(uploadFilesService.uploadFileChunks(any(), any(), any(), any()))
+            .thenReturn(expectedStreamObserver);
+
+        // When
+        StreamObserver<FileChunkUploadRequest> result = service.uploadFileChunks(responseObserver);
+
+        // Then
+        verify(processingMetrics).incrementActiveRequests();
+        verify(uploadFilesService).uploadFileChunks(
+            eq(responseObserver),
+            any(Runnable.class),
+            any(Runnable.class),
+            any(Runnable.class)
+        );
+        assertEquals(expectedStreamObserver, result);
+    }
+
+    @Test
+    void liveFileChunkProcessing_HandlesExceptions() {
+        // Given
+        @SuppressWarnings("unchecked")
+        StreamObserver<FileOperationResult> observer = mock(StreamObserver.class);
+        when(liveFileProcessingService.liveFileChunkProcessing(observer))
+            .thenThrow(new RuntimeException("Test exception"));
+
+        // When
+        StreamObserver<FileChunkUploadRequest> result = service.liveFileChunkProcessing(observer);
+
+        // Then
+        verify(processingMetrics).incrementFailedRequests();
+        ArgumentCaptor<StatusRuntimeException> errorCaptor = ArgumentCaptor.forClass(StatusRuntimeException.class);
+        verify(observer).onError(errorCaptor.capture());
+        assertEquals(Status.Code.INTERNAL, errorCaptor.getValue().getStatus().getCode());
+        assertNotNull(result); // Returns a no-op observer
+    }
 }
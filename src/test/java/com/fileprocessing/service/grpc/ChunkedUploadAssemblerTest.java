@@ -0,0 +1,140 @@
+package com.fileprocessing.service.grpc;
+
+import com.fileprocessing.FileSpec.FileChunk;
+import com.fileprocessing.FileSpec.FileChunkHeader;
+import com.fileprocessing.FileSpec.FileChunkUploadRequest;
+import com.fileprocessing.FileSpec.OperationType;
+import com.fileprocessing.model.FileUploadRequestModel;
+import com.google.protobuf.ByteString;
+import org.junit.jupiter.api.Test;
+
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkedUploadAssemblerTest {
+
+    private static final byte[] CONTENT = "Hello chunked world".getBytes();
+
+    private static FileChunkUploadRequest header(String fileId, long size, String sha256) {
+        return FileChunkUploadRequest.newBuilder()
+                .setHeader(FileChunkHeader.newBuilder()
+                        .setFileId(fileId)
+                        .setFileName(fileId + ".txt")
+                        .setFileType("txt")
+                        .setSizeBytes(size)
+                        .setSha256(sha256)
+                        .addOperations(OperationType.VALIDATE))
+                .build();
+    }
+
+    private static FileChunkUploadRequest chunk(long offset, byte[] content, int from, int to) {
+        return FileChunkUploadRequest.newBuilder()
+                .setChunk(FileChunk.newBuilder()
+                        .setOffset(offset)
+                        .setData(ByteString.copyFrom(content, from, to - from)))
+                .build();
+    }
+
+    @Test
+    void accept_ShouldAssembleFile_WhenLastChunkArrives() {
+        ChunkedUploadAssembler assembler = new ChunkedUploadAssembler();
+
+        assertTrue(assembler.accept(header("f1", CONTENT.length, "")).isEmpty());
+        assertTrue(assembler.accept(chunk(0, CONTENT, 0, 5)).isEmpty());
+        assertTrue(assembler.hasPendingFile());
+        Optional<FileUploadRequestModel> upload = assembler.accept(chunk(5, CONTENT, 5, CONTENT.length));
+
+        assertTrue(upload.isPresent());
+        assertFalse(assembler.hasPendingFile());
+        assertEquals("f1", upload.get().file().fileId());
+        assertEquals(CONTENT.length, upload.get().file().sizeBytes());
+        assertArrayEquals(CONTENT, upload.get().file().content());
+        assertEquals(List.of(OperationType.VALIDATE), upload.get().operations());
+    }
+
+    @Test
+    void accept_ShouldAssembleConsecutiveFiles() {
+        ChunkedUploadAssembler assembler = new ChunkedUploadAssembler();
+
+        assembler.accept(header("f1", CONTENT.length, ""));
+        assertTrue(assembler.accept(chunk(0, CONTENT, 0, CONTENT.length)).isPresent());
+        assembler.accept(header("f2", CONTENT.length, ""));
+        Optional<FileUploadRequestModel> second = assembler.accept(chunk(0, CONTENT, 0, CONTENT.length));
+
+        assertTrue(second.isPresent());
+        assertEquals("f2", second.get().file().fileId());
+    }
+
+    @Test
+    void accept_ShouldVerifyChecksum_WhenProvided() throws Exception {
+        String sha256 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(CONTENT));
+        ChunkedUploadAssembler assembler = new ChunkedUploadAssembler();
+
+        assembler.accept(header("f1", CONTENT.length, sha256));
+        assertTrue(assembler.accept(chunk(0, CONTENT, 0, CONTENT.length)).isPresent());
+    }
+
+    @Test
+    void accept_ShouldThrow_OnChecksumMismatch() {
+        ChunkedUploadAssembler assembler = new ChunkedUploadAssembler();
+
+        assembler.accept(header("f1", CONTENT.length, "00"));
+        assertThrows(IllegalArgumentException.class,
+                () -> assembler.accept(chunk(0, CONTENT, 0, CONTENT.length)));
+    }
+
+    @Test
+    void accept_ShouldThrow_OnOutOfOrderChunk() {
+        ChunkedUploadAssembler assembler = new ChunkedUploadAssembler();
+
+        assembler.accept(header("f1", CONTENT.length, ""));
+        assertThrows(IllegalArgumentException.class,
+                () -> assembler.accept(chunk(5, CONTENT, 5, CONTENT.length)));
+    }
+
+    @Test
+    void accept_ShouldThrow_WhenChunkOverflowsDeclaredSize() {
+        ChunkedUploadAssembler assembler = new ChunkedUploadAssembler();
+
+        assembler.accept(header("f1", 4, ""));
+        assertThrows(IllegalArgumentException.class,
+                () -> assembler.accept(chunk(0, CONTENT, 0, CONTENT.length)));
+    }
+
+    @Test
+    void accept_ShouldThrow_OnChunkWithoutHeader() {
+        ChunkedUploadAssembler assembler = new ChunkedUploadAssembler();
+
+        assertThrows(IllegalStateException.class,
+                () -> assembler.accept(chunk(0, CONTENT, 0, CONTENT.length)));
+    }
+
+    @Test
+    void accept_ShouldThrow_OnHeaderBeforePreviousFileCompleted() {
+        ChunkedUploadAssembler assembler = new ChunkedUploadAssembler();
+
+        assembler.accept(header("f1", CONTENT.length, ""));
+        assertThrows(IllegalStateException.class,
+                () -> assembler.accept(header("f2", CONTENT.length, "")));
+    }
+
+    @Test
+    void accept_ShouldThrow_WhenDeclaredSizeExceedsLimit() {
+        ChunkedUploadAssembler assembler = new ChunkedUploadAssembler();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> assembler.accept(header("f1", Long.MAX_VALUE, "")));
+    }
+
+    @Test
+    void accept_ShouldThrow_OnEmptyMessage() {
+        ChunkedUploadAssembler assembler = new ChunkedUploadAssembler();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> assembler.accept(FileChunkUploadRequest.getDefaultInstance()));
+    }
+}
@@ -0,0 +1,98 @@
+package com.fileprocessing.service.grpc;
+
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class InboundFlowControlTest {
+
+    private ServerCallStreamObserver<Object> call;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        call = mock(ServerCallStreamObserver.class);
+    }
+
+    @Test
+    void attach_ShouldDisableAutoRequestAndRequestFirstMessage() {
+        InboundFlowControl.attach(call, 4);
+
+        verify(call).disableAutoRequest();
+        verify(call, times(1)).request(1);
+    }
+
+    @Test
+    void messageHandled_ShouldPauseWhenWindowFull_AndResumeWhenFileFinishes() {
+        InboundFlowControl flowControl = InboundFlowControl.attach(call, 2);
+
+        flowControl.fileStarted();
+        flowControl.messageHandled();
+        verify(call, times(2)).request(1);
+
+        flowControl.fileStarted();
+        flowControl.messageHandled();
+        verify(call, times(2)).request(1); // window full, no further request
+
+        flowControl.fileFinished();
+        verify(call, times(3)).request(1);
+        assertEquals(1, flowControl.inFlight());
+    }
+
+    @Test
+    void messageHandled_ShouldKeepRequesting_ForMessagesThatStartNoFile() {
+        InboundFlowControl flowControl = InboundFlowControl.attach(call, 1);
+
+        flowControl.messageHandled();
+        flowControl.messageHandled();
+
+        verify(call, times(3)).request(1);
+    }
+
+    @Test
+    void whenDrained_ShouldWaitForInFlightFiles() {
+        InboundFlowControl flowControl = InboundFlowControl.attach(call, 2);
+        AtomicBoolean drained = new AtomicBoolean(false);
+
+        flowControl.fileStarted();
+        flowControl.whenDrained(() -> drained.set(true));
+        assertFalse(drained.get());
+
+        flowControl.fileFinished();
+        assertTrue(drained.get());
+    }
+
+    @Test
+    void whenDrained_ShouldRunImmediately_WhenIdle() {
+        InboundFlowControl flowControl = InboundFlowControl.attach(call, 2);
+        AtomicBoolean drained = new AtomicBoolean(false);
+
+        flowControl.whenDrained(() -> drained.set(true));
+
+        assertTrue(drained.get());
+    }
+
+    @Test
+    void attach_ShouldTolerateNonServerObservers() {
+        @SuppressWarnings("unchecked")
+        StreamObserver<Object> observer = mock(StreamObserver.class);
+
+        InboundFlowControl flowControl = InboundFlowControl.attach(observer, 1);
+        flowControl.fileStarted();
+        flowControl.messageHandled();
+        flowControl.fileFinished();
+
+        assertEquals(0, flowControl.inFlight());
+    }
+
+    @Test
+    void attach_ShouldRejectNonPositiveWindow() {
+        assertThrows(IllegalArgumentException.class, () -> InboundFlowControl.attach(call, 0));
+    }
+}
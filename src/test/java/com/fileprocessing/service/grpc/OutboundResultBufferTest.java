@@ -0,0 +1,99 @@
+package com.fileprocessing.service.grpc;
+
+import io.grpc.stub.ServerCallStreamObserver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OutboundResultBufferTest {
+
+    private ServerCallStreamObserver<String> call;
+    private Runnable onReadyHandler;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        call = mock(ServerCallStreamObserver.class);
+    }
+
+    private OutboundResultBuffer<String> attach(int capacity) {
+        OutboundResultBuffer<String> buffer = OutboundResultBuffer.attach(call, capacity);
+        ArgumentCaptor<Runnable> handler = ArgumentCaptor.forClass(Runnable.class);
+        verify(call).setOnReadyHandler(handler.capture());
+        onReadyHandler = handler.getValue();
+        return buffer;
+    }
+
+    @Test
+    void offer_ShouldWriteImmediately_WhenReady() {
+        when(call.isReady()).thenReturn(true);
+        OutboundResultBuffer<String> buffer = attach(2);
+
+        buffer.offer("a");
+
+        verify(call).onNext("a");
+        assertEquals(0, buffer.buffered());
+    }
+
+    @Test
+    void offer_ShouldBufferUntilReady_AndFlushInOrder() {
+        when(call.isReady()).thenReturn(false);
+        OutboundResultBuffer<String> buffer = attach(2);
+
+        buffer.offer("a");
+        buffer.offer("b");
+        verify(call, never()).onNext(any());
+        assertFalse(buffer.isWritable());
+
+        when(call.isReady()).thenReturn(true);
+        onReadyHandler.run();
+
+        var order = inOrder(call);
+        order.verify(call).onNext("a");
+        order.verify(call).onNext("b");
+        assertTrue(buffer.isWritable());
+    }
+
+    @Test
+    void onReady_ShouldInvokeWritableCallback_OnceDrained() {
+        when(call.isReady()).thenReturn(false);
+        OutboundResultBuffer<String> buffer = attach(1);
+        AtomicInteger resumed = new AtomicInteger();
+        buffer.onWritable(resumed::incrementAndGet);
+
+        buffer.offer("a");
+        onReadyHandler.run();
+        assertEquals(0, resumed.get());
+
+        when(call.isReady()).thenReturn(true);
+        onReadyHandler.run();
+        assertEquals(1, resumed.get());
+    }
+
+    @Test
+    void complete_ShouldWaitForBufferedMessages() {
+        when(call.isReady()).thenReturn(false);
+        OutboundResultBuffer<String> buffer = attach(4);
+
+        buffer.offer("a");
+        buffer.complete();
+        verify(call, never()).onCompleted();
+
+        when(call.isReady()).thenReturn(true);
+        onReadyHandler.run();
+
+        var order = inOrder(call);
+        order.verify(call).onNext("a");
+        order.verify(call).onCompleted();
+    }
+
+    @Test
+    void attach_ShouldRejectNonPositiveCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> OutboundResultBuffer.attach(call, 0));
+    }
+}
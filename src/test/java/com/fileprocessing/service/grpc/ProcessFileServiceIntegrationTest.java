@@ -84,8 +84,8 @@ class ProcessFileServiceIntegrationTest {
             (byte) 0x08, (byte) 0xD7, (byte) 0x63, (byte) 0x60,
             (byte) 0x60, (byte) 0x60, (byte) 0x60, (byte) 0x00,
             (byte) 0x00, (byte) 0x00, (byte) 0x05, (byte) 0x00,
-            (byte) 0x01, (byte) 0x0D, (byte) 0x69, (byte) 0x28,
-            (byte) 0xD4, (byte) 0x00, (byte) 0x00, (byte) 0x00,
+            (byte) 0x01, (byte) 0x5E, (byte) 0xF3, (byte) 0x2A,
+            (byte) 0x3A, (byte) 0x00, (byte) 0x00, (byte) 0x00,
             (byte) 0x00, (byte) 0x49, (byte) 0x45, (byte) 0x4E,
             (byte) 0x44, (byte) 0xAE, (byte) 0x42, (byte) 0x60,
             (byte) 0x82
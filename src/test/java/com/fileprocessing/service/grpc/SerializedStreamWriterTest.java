@@ -0,0 +1,127 @@
+package com.fileprocessing.service.grpc;
+
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SerializedStreamWriterTest {
+
+    private StreamObserver<String> observer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        observer = mock(StreamObserver.class);
+    }
+
+    @Test
+    void emit_ShouldWriteInOrder_ThenComplete() {
+        SerializedStreamWriter<String> writer = new SerializedStreamWriter<>(observer);
+
+        writer.emit("a");
+        writer.emit("b");
+        writer.complete();
+
+        var order = inOrder(observer);
+        order.verify(observer).onNext("a");
+        order.verify(observer).onNext("b");
+        order.verify(observer).onCompleted();
+    }
+
+    @Test
+    void emit_ShouldBeDropped_AfterError() {
+        SerializedStreamWriter<String> writer = new SerializedStreamWriter<>(observer);
+        Throwable error = Status.INTERNAL.asRuntimeException();
+
+        writer.emit("a");
+        writer.error(error);
+        writer.emit("b");
+        writer.complete();
+
+        verify(observer).onNext("a");
+        verify(observer).onError(error);
+        verify(observer, never()).onNext("b");
+        verify(observer, never()).onCompleted();
+    }
+
+    @Test
+    void emit_ShouldStopWriting_WhenObserverFails() {
+        doThrow(Status.CANCELLED.asRuntimeException()).when(observer).onNext("a");
+        SerializedStreamWriter<String> writer = new SerializedStreamWriter<>(observer);
+
+        writer.emit("a");
+        writer.emit("b");
+        writer.complete();
+
+        verify(observer, never()).onNext("b");
+        verify(observer, never()).onCompleted();
+    }
+
+    @Test
+    void emit_ShouldDeliverEveryMessageOnce_WithoutConcurrentWrites() throws Exception {
+        int producers = 8;
+        int perProducer = 500;
+        List<String> written = new CopyOnWriteArrayList<>();
+        AtomicBoolean writing = new AtomicBoolean(false);
+        AtomicInteger overlaps = new AtomicInteger();
+        CountDownLatch completed = new CountDownLatch(1);
+        SerializedStreamWriter<String> writer = new SerializedStreamWriter<>(new StreamObserver<>() {
+            @Override
+            public void onNext(String value) {
+                if (!writing.compareAndSet(false, true)) {
+                    overlaps.incrementAndGet();
+                }
+                written.add(value);
+                writing.set(false);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+            }
+
+            @Override
+            public void onCompleted() {
+                completed.countDown();
+            }
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int p = 0; p < producers; p++) {
+                int producer = p;
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perProducer; i++) {
+                        writer.emit(producer + "-" + i);
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        writer.complete();
+
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertEquals(0, overlaps.get());
+        assertEquals(producers * perProducer, written.size());
+        assertEquals(producers * perProducer, written.stream().distinct().count());
+    }
+}
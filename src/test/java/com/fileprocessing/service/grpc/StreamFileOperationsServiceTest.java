@@ -0,0 +1,137 @@
+package com.fileprocessing.service.grpc;
+
+import com.fileprocessing.FileSpec.FileOperationResult;
+import com.fileprocessing.FileSpec.OperationStatus;
+import com.fileprocessing.FileSpec.OperationType;
+import com.fileprocessing.compression.CompressionCodecs;
+import com.fileprocessing.concurrency.WorkflowExecutorService;
+import com.fileprocessing.config.StreamProperties;
+import com.fileprocessing.model.FileModel;
+import com.fileprocessing.model.FileOperationResultModel;
+import com.fileprocessing.model.FileProcessingRequestModel;
+import com.fileprocessing.service.monitoring.FileProcessingMetrics;
+import io.grpc.stub.ServerCallStreamObserver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class StreamFileOperationsServiceTest {
+
+    private WorkflowExecutorService workflowExecutorService;
+    private FileProcessingMetrics processingMetrics;
+    private ServerCallStreamObserver<FileOperationResult> call;
+    private StreamFileOperationsService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        workflowExecutorService = mock(WorkflowExecutorService.class);
+        processingMetrics = mock(FileProcessingMetrics.class);
+        call = mock(ServerCallStreamObserver.class);
+
+        StreamProperties properties = new StreamProperties();
+        properties.setMaxInFlightFiles(2);
+        properties.setOutboundBufferSize(1);
+        service = new StreamFileOperationsService(workflowExecutorService, processingMetrics, properties);
+
+        // Each file completes immediately with a single successful VALIDATE result
+        when(workflowExecutorService.processWorkflowStreamed(any(), any())).thenAnswer(invocation -> {
+            FileProcessingRequestModel request = invocation.getArgument(0);
+            Consumer<FileOperationResultModel> consumer = invocation.getArgument(1);
+            consumer.accept(FileOperationResultModel.builder()
+                    .fileId(request.files().get(0).fileId())
+                    .operationType(OperationType.VALIDATE)
+                    .status(OperationStatus.SUCCESS)
+                    .details("ok")
+                    .startTime(Instant.now())
+                    .endTime(Instant.now())
+                    .resultLocation("")
+                    .build());
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
+    private static FileProcessingRequestModel requestOf(int fileCount) {
+        List<FileModel> files = IntStream.range(0, fileCount)
+                .mapToObj(i -> new FileModel("f" + i, "f" + i + ".png", "x".getBytes(), "png", 1))
+                .toList();
+        return new FileProcessingRequestModel(files, List.of(OperationType.VALIDATE), Map.of());
+    }
+
+    @Test
+    void streamFileOperations_ShouldStreamAllResults_WhenClientKeepsUp() {
+        when(call.isReady()).thenReturn(true);
+
+        service.streamFileOperations(requestOf(3), call, System.nanoTime());
+
+        verify(call, times(3)).onNext(any());
+        verify(call).onCompleted();
+        verify(processingMetrics).decrementActiveRequests();
+        verify(processingMetrics).recordRequestCompletion(eq("StreamFileOperations"), anyLong());
+    }
+
+    @Test
+    void streamFileOperations_ShouldPauseSubmission_UntilClientIsReady() {
+        when(call.isReady()).thenReturn(false);
+
+        service.streamFileOperations(requestOf(3), call, System.nanoTime());
+
+        verify(workflowExecutorService, never()).processWorkflowStreamed(any(), any());
+        verify(call, never()).onNext(any());
+        verify(processingMetrics, never()).recordRequestCompletion(any(), anyLong());
+
+        ArgumentCaptor<Runnable> onReady = ArgumentCaptor.forClass(Runnable.class);
+        verify(call).setOnReadyHandler(onReady.capture());
+        when(call.isReady()).thenReturn(true);
+        onReady.getValue().run();
+
+        verify(workflowExecutorService, times(3)).processWorkflowStreamed(any(), any());
+        verify(call, times(3)).onNext(any());
+        verify(call).onCompleted();
+        verify(processingMetrics).recordRequestCompletion(eq("StreamFileOperations"), anyLong());
+    }
+
+    @Test
+    void streamFileOperations_ShouldScopeFileSpecificOperationsToEachFile() {
+        when(call.isReady()).thenReturn(true);
+        FileModel file = new FileModel("f0", "f0.png", "x".getBytes(), "png", 1);
+        FileProcessingRequestModel request = new FileProcessingRequestModel(List.of(file),
+                List.of(OperationType.VALIDATE), Map.of("f0", List.of(OperationType.STORAGE), "other", List.of()));
+
+        service.streamFileOperations(request, call, System.nanoTime());
+
+        ArgumentCaptor<FileProcessingRequestModel> submitted = ArgumentCaptor.forClass(FileProcessingRequestModel.class);
+        verify(workflowExecutorService).processWorkflowStreamed(submitted.capture(), any());
+        assertEquals(Map.of("f0", List.of(OperationType.STORAGE)), submitted.getValue().fileSpecificOperations());
+    }
+
+    @Test
+    void streamFileOperations_ShouldKeepOperationParameters() {
+        when(call.isReady()).thenReturn(true);
+        FileProcessingRequestModel request = FileProcessingRequestModel.builder()
+                .files(requestOf(2).files())
+                .addDefaultOperation(OperationType.FILE_COMPRESSION)
+                .addOperationParameter(OperationType.FILE_COMPRESSION, CompressionCodecs.CODEC_PARAMETER, "snappy")
+                .build();
+
+        service.streamFileOperations(request, call, System.nanoTime());
+
+        ArgumentCaptor<FileProcessingRequestModel> submitted = ArgumentCaptor.forClass(FileProcessingRequestModel.class);
+        verify(workflowExecutorService, times(2)).processWorkflowStreamed(submitted.capture(), any());
+        submitted.getAllValues().forEach(perFile -> assertEquals(Map.of(CompressionCodecs.CODEC_PARAMETER, "snappy"),
+                perFile.parametersOf(OperationType.FILE_COMPRESSION)));
+    }
+}
@@ -0,0 +1,138 @@
+package com.fileprocessing.service.grpc;
+
+import com.fileprocessing.FileSpec.File;
+import com.fileprocessing.FileSpec.FileProcessingSummary;
+import com.fileprocessing.FileSpec.FileUploadRequest;
+import com.fileprocessing.FileSpec.OperationType;
+import com.fileprocessing.config.StreamProperties;
+import com.fileprocessing.model.FileProcessingRequestModel;
+import com.fileprocessing.model.FileProcessingSummaryModel;
+import com.google.protobuf.ByteString;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class UploadFilesServiceTest {
+
+    private ProcessFileService processFileService;
+    private ServerCallStreamObserver<FileProcessingSummary> call;
+    private UploadFilesService service;
+    private Runnable onFailure;
+    private Runnable onCompletion;
+    private final List<CompletableFuture<FileProcessingSummaryModel>> pending = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        processFileService = mock(ProcessFileService.class);
+        call = mock(ServerCallStreamObserver.class);
+        onFailure = mock(Runnable.class);
+        onCompletion = mock(Runnable.class);
+
+        StreamProperties properties = new StreamProperties();
+        properties.setMaxInFlightFiles(2);
+        service = new UploadFilesService(processFileService, properties);
+
+        when(processFileService.processFilesAsync(any())).thenAnswer(invocation -> {
+            CompletableFuture<FileProcessingSummaryModel> future = new CompletableFuture<>();
+            pending.add(future);
+            return future;
+        });
+    }
+
+    private static FileUploadRequest uploadOf(String fileId) {
+        return FileUploadRequest.newBuilder()
+                .setFile(File.newBuilder()
+                        .setFileId(fileId)
+                        .setFileName(fileId + ".png")
+                        .setFileType("png")
+                        .setContent(ByteString.copyFromUtf8("x"))
+                        .setSizeBytes(1)
+                        .build())
+                .addOperations(OperationType.VALIDATE)
+                .build();
+    }
+
+    private StreamObserver<FileUploadRequest> upload() {
+        return service.uploadFiles(call, () -> {
+        }, onFailure, onCompletion);
+    }
+
+    @Test
+    void uploadFiles_ShouldStartEachFile_AsItArrives() {
+        StreamObserver<FileUploadRequest> requests = upload();
+
+        requests.onNext(uploadOf("a"));
+        requests.onNext(uploadOf("b"));
+
+        ArgumentCaptor<FileProcessingRequestModel> started = ArgumentCaptor.forClass(FileProcessingRequestModel.class);
+        verify(processFileService, times(2)).processFilesAsync(started.capture());
+        assertEquals("a", started.getAllValues().get(0).files().get(0).fileId());
+        assertEquals("b", started.getAllValues().get(1).files().get(0).fileId());
+        verify(call, never()).onNext(any());
+    }
+
+    @Test
+    void uploadFiles_ShouldSendRunningSummary_OnceInFlightFilesDrain() {
+        StreamObserver<FileUploadRequest> requests = upload();
+
+        requests.onNext(uploadOf("a"));
+        requests.onNext(uploadOf("b"));
+        pending.get(0).complete(new FileProcessingSummaryModel(1, 1, 0, List.of()));
+        requests.onCompleted();
+        verify(call, never()).onCompleted();
+
+        pending.get(1).complete(new FileProcessingSummaryModel(1, 0, 1, List.of()));
+
+        ArgumentCaptor<FileProcessingSummary> summary = ArgumentCaptor.forClass(FileProcessingSummary.class);
+        verify(call).onNext(summary.capture());
+        verify(call).onCompleted();
+        verify(onCompletion).run();
+        assertEquals(2, summary.getValue().getTotalFiles());
+        assertEquals(1, summary.getValue().getSuccessfulFiles());
+        assertEquals(1, summary.getValue().getFailedFiles());
+    }
+
+    @Test
+    void uploadFiles_ShouldStopRequesting_WhenWindowIsFull() {
+        StreamObserver<FileUploadRequest> requests = upload();
+        verify(call).disableAutoRequest();
+        verify(call).request(1);
+
+        requests.onNext(uploadOf("a"));
+        requests.onNext(uploadOf("b"));
+        verify(call, times(2)).request(1);
+
+        pending.get(0).complete(new FileProcessingSummaryModel(1, 1, 0, List.of()));
+        verify(call, times(3)).request(1);
+    }
+
+    @Test
+    void uploadFiles_ShouldFailUpload_WhenAFileCannotBeProcessed() {
+        StreamObserver<FileUploadRequest> requests = upload();
+
+        requests.onNext(uploadOf("a"));
+        pending.get(0).completeExceptionally(new IllegalStateException("boom"));
+        requests.onCompleted();
+
+        ArgumentCaptor<StatusRuntimeException> error = ArgumentCaptor.forClass(StatusRuntimeException.class);
+        verify(call).onError(error.capture());
+        assertEquals(Status.Code.INTERNAL, error.getValue().getStatus().getCode());
+        assertTrue(error.getValue().getMessage().contains("boom"));
+        verify(call, never()).onCompleted();
+        verify(onFailure).run();
+        verify(onCompletion).run();
+    }
+}
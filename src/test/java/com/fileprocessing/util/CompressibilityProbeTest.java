@@ -0,0 +1,58 @@
+package com.fileprocessing.util;
+
+import com.google.protobuf.ByteString;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressibilityProbeTest {
+
+    private static ByteString randomBytes(int size, int alphabet) {
+        byte[] bytes = new byte[size];
+        Random random = new Random(7);
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) random.nextInt(alphabet);
+        }
+        return ByteString.copyFrom(bytes);
+    }
+
+    @Test
+    void estimate_ShouldStore_RandomContent() {
+        CompressibilityProbe.Estimate estimate = CompressibilityProbe.estimate(randomBytes(1 << 20, 256));
+
+        assertEquals(CompressibilityProbe.Mode.STORE, estimate.mode());
+        assertTrue(estimate.entropyBitsPerByte() > 7.9);
+        // large content is only sampled
+        assertEquals(CompressibilityProbe.SAMPLES * CompressibilityProbe.WINDOW, estimate.sampledBytes());
+    }
+
+    @Test
+    void estimate_ShouldUseFastMode_ModeratelyCompressibleContent() {
+        // 128 equally likely symbols: 7 bits per byte
+        CompressibilityProbe.Estimate estimate = CompressibilityProbe.estimate(randomBytes(64 * 1024, 128));
+
+        assertEquals(CompressibilityProbe.Mode.FAST, estimate.mode());
+    }
+
+    @Test
+    void estimate_ShouldUseHighMode_Text() {
+        String text = "The quick brown fox jumps over the lazy dog. ".repeat(200);
+        CompressibilityProbe.Estimate estimate =
+                CompressibilityProbe.estimate(ByteString.copyFrom(text, StandardCharsets.UTF_8));
+
+        assertEquals(CompressibilityProbe.Mode.HIGH, estimate.mode());
+        assertEquals(text.length(), estimate.sampledBytes());
+        assertTrue(estimate.describe().startsWith("mode=HIGH entropy="));
+    }
+
+    @Test
+    void estimate_ShouldStore_EmptyContent() {
+        CompressibilityProbe.Estimate estimate = CompressibilityProbe.estimate(ByteString.EMPTY);
+
+        assertEquals(CompressibilityProbe.Mode.STORE, estimate.mode());
+        assertEquals(0, estimate.sampledBytes());
+    }
+}
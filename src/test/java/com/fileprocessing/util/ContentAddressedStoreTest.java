@@ -0,0 +1,156 @@
+package com.fileprocessing.util;
+
+import com.fileprocessing.model.FileModel;
+import com.google.protobuf.ByteString;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentAddressedStoreTest {
+
+    @TempDir
+    Path root;
+
+    private static FileModel fileOf(String fileId, String content) {
+        return new FileModel(fileId, "asset.png", content.getBytes(), "png", content.length());
+    }
+
+    private static long blobCount(Path root) throws IOException {
+        try (Stream<Path> blobs = Files.walk(root.resolve(ContentAddressedStore.BLOB_DIR))) {
+            return blobs.filter(Files::isRegularFile).count();
+        }
+    }
+
+    private Path store(ContentAddressedStore store, FileModel file) throws IOException {
+        return store.store(file, FileOperations.calculateChecksum(file.data()));
+    }
+
+    @Test
+    void store_ShouldWriteIdenticalContentOnce() throws IOException {
+        ContentAddressedStore store = new ContentAddressedStore(root);
+
+        Path first = store(store, fileOf("a", "same bytes"));
+        Path second = store(store, fileOf("b", "same bytes"));
+
+        assertNotEquals(first, second);
+        assertTrue(Files.isSameFile(first, second));
+        assertEquals("same bytes", Files.readString(second));
+        assertEquals(1, blobCount(root));
+    }
+
+    @Test
+    void store_ShouldKeepDistinctContentInSeparateBlobs() throws IOException {
+        ContentAddressedStore store = new ContentAddressedStore(root);
+
+        Path first = store(store, fileOf("a", "first"));
+        Path second = store(store, fileOf("b", "second"));
+
+        assertFalse(Files.isSameFile(first, second));
+        assertEquals(2, blobCount(root));
+    }
+
+    @Test
+    void store_ShouldRepointReference_WhenContentChanges() throws IOException {
+        ContentAddressedStore store = new ContentAddressedStore(root);
+
+        store(store, fileOf("a", "version one"));
+        Path reference = store(store, fileOf("a", "version two"));
+
+        assertEquals("version two", Files.readString(reference));
+        assertEquals(root.resolve("png").resolve("a_asset.png"), reference);
+    }
+
+    @Test
+    void store_ShouldHandleConcurrentWritersWithoutLeftovers() throws Exception {
+        ContentAddressedStore store = new ContentAddressedStore(root);
+        int threadCount = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Path>> futures = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < threadCount; i++) {
+                // Half of the writers share a reference name, all of them share the content
+                FileModel file = fileOf(i % 2 == 0 ? "shared" : "id-" + i, "concurrent bytes");
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return store(store, file);
+                }));
+            }
+            start.countDown();
+            for (Future<Path> future : futures) {
+                assertEquals("concurrent bytes", Files.readString(future.get(10, TimeUnit.SECONDS)));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, blobCount(root));
+        try (Stream<Path> files = Files.walk(root)) {
+            assertTrue(files.noneMatch(path -> path.toString().endsWith(".tmp")));
+        }
+    }
+
+    @Test
+    void storeStreamed_ShouldDigestWrittenContent_AndDeduplicate() throws IOException {
+        ContentAddressedStore store = new ContentAddressedStore(root);
+        FileModel file = fileOf("a", "original");
+
+        Path first = store.store(file, ".gz", out -> out.write("derived".getBytes()));
+        Path second = store.store(fileOf("b", "other"), ".gz", out -> out.write("derived".getBytes()));
+
+        assertEquals(root.resolve("png").resolve("a_asset.png.gz"), first);
+        assertEquals("derived", Files.readString(first));
+        assertTrue(Files.isSameFile(first, second));
+        assertTrue(Files.isSameFile(first,
+                store.blobPath(FileOperations.calculateChecksum(ByteString.copyFromUtf8("derived")))));
+        assertEquals(1, blobCount(root));
+    }
+
+    @Test
+    void storeStreamed_ShouldLeaveNothingBehind_WhenWriterFails() throws IOException {
+        ContentAddressedStore store = new ContentAddressedStore(root);
+
+        assertThrows(IOException.class, () -> store.store(fileOf("a", "original"), ".gz", out -> {
+            out.write("partial".getBytes());
+            throw new IOException("compression failed");
+        }));
+
+        assertEquals(0, blobCount(root));
+        assertFalse(Files.exists(root.resolve("png")));
+    }
+
+    @Test
+    void store_ShouldRejectReferencesOutsideTheStore() throws IOException {
+        ContentAddressedStore store = new ContentAddressedStore(root.resolve("store"));
+        FileModel traversingId = fileOf("../../escape", "content");
+        FileModel traversingType = new FileModel("a", "asset.png", "content".getBytes(), "../..", 7);
+
+        assertThrows(IllegalArgumentException.class, () -> store(store, traversingId));
+        assertThrows(IllegalArgumentException.class, () -> store.store(traversingType, ".gz",
+                out -> out.write("content".getBytes())));
+        try (Stream<Path> files = Files.walk(root)) {
+            assertEquals(List.of(root), files.toList());
+        }
+    }
+
+    @Test
+    void blobPath_ShouldShardByDigestPrefix() {
+        ContentAddressedStore store = new ContentAddressedStore(root);
+
+        assertEquals(root.resolve("blobs").resolve("ab").resolve("abcdef"), store.blobPath("abcdef"));
+    }
+}
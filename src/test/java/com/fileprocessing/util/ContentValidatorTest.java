@@ -0,0 +1,122 @@
+package com.fileprocessing.util;
+
+import com.fileprocessing.model.FileModel;
+import com.google.protobuf.ByteString;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentValidatorTest {
+
+    private static FileModel fileOf(byte[] content, String type) {
+        return new FileModel("validate-1", "file." + type, content, type, content.length);
+    }
+
+    private static byte[] encode(String format) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(32, 16, BufferedImage.TYPE_INT_RGB), format, baos);
+        return baos.toByteArray();
+    }
+
+    @Test
+    void validate_ShouldAcceptWellFormedImages() throws IOException {
+        assertDoesNotThrow(() -> ContentValidator.validate(fileOf(encode("png"), "png")));
+        assertDoesNotThrow(() -> ContentValidator.validate(fileOf(encode("jpg"), "jpg")));
+        assertDoesNotThrow(() -> ContentValidator.validate(fileOf(encode("gif"), "gif")));
+    }
+
+    @Test
+    void validate_ShouldRejectPngWithCorruptedChunk() throws IOException {
+        byte[] png = encode("png");
+        png[20] ^= 0x01; // inside the IHDR data, so its CRC no longer matches
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> ContentValidator.validate(fileOf(png, "png")));
+        assertTrue(e.getMessage().contains("CRC mismatch in chunk IHDR"));
+    }
+
+    @Test
+    void validate_ShouldRejectTruncatedImages() throws IOException {
+        byte[] png = encode("png");
+        byte[] jpeg = encode("jpg");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ContentValidator.validate(fileOf(Arrays.copyOf(png, png.length - 12), "png")));
+        assertThrows(IllegalArgumentException.class,
+                () -> ContentValidator.validate(fileOf(Arrays.copyOf(jpeg, jpeg.length - 2), "jpg")));
+    }
+
+    @Test
+    void validate_ShouldAcceptImagesWithTrailingBytes() throws IOException {
+        byte[] jpeg = encode("jpg");
+        byte[] gif = encode("gif");
+        byte[] paddedJpeg = Arrays.copyOf(jpeg, jpeg.length + 512); // zero padding, as written by some cameras
+        byte[] appendedGif = Arrays.copyOf(gif, gif.length + 16);
+        appendedGif[gif.length] = 'X';
+
+        assertDoesNotThrow(() -> ContentValidator.validate(fileOf(paddedJpeg, "jpg")));
+        assertDoesNotThrow(() -> ContentValidator.validate(fileOf(appendedGif, "gif")));
+        assertNotNull(ImageIO.read(new ByteArrayInputStream(paddedJpeg)));
+    }
+
+    @Test
+    void validate_ShouldCheckContentAssembledFromChunks() throws IOException {
+        BufferedImage noise = new BufferedImage(32, 32, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(7);
+        for (int y = 0; y < 32; y++) {
+            for (int x = 0; x < 32; x++) {
+                noise.setRGB(x, y, random.nextInt()); // incompressible, so the PNG spans several kilobytes
+            }
+        }
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(noise, "png", baos);
+        byte[] png = baos.toByteArray();
+        // Split inside the IHDR chunk, as an upload split into chunks would be
+        ByteString chunked = ByteString.copyFrom(png, 0, 20).concat(ByteString.copyFrom(png, 20, png.length - 20));
+        FileModel file = FileModel.builder()
+                .fileId("validate-2")
+                .fileName("file.png")
+                .data(chunked)
+                .fileType("png")
+                .sizeBytes(png.length)
+                .build();
+
+        assertEquals(2, chunked.asReadOnlyByteBufferList().size());
+        assertDoesNotThrow(() -> ContentValidator.validate(file));
+        assertEquals(FileOperations.calculateChecksum(ByteString.copyFrom(png)),
+                FileOperations.calculateChecksum(chunked));
+    }
+
+    @Test
+    void validate_ShouldRejectContentOfAnotherType() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> ContentValidator.validate(fileOf(encode("png"), "jpg")));
+        assertThrows(IllegalArgumentException.class, () -> ContentValidator.validate(fileOf(encode("jpg"), "gif")));
+        assertThrows(IllegalArgumentException.class, () -> ContentValidator.validate(fileOf(encode("gif"), "pdf")));
+    }
+
+    @Test
+    void validate_ShouldCheckPdfHeaderAndTrailer() {
+        byte[] pdf = "%PDF-1.7\n1 0 obj\n<<>>\nendobj\nxref\n0 1\ntrailer\n<<>>\nstartxref\n9\n%%EOF\n"
+                .getBytes(StandardCharsets.ISO_8859_1);
+        byte[] noTrailer = "%PDF-1.7\n1 0 obj\n<<>>\nendobj\n".getBytes(StandardCharsets.ISO_8859_1);
+
+        assertDoesNotThrow(() -> ContentValidator.validate(fileOf(pdf, "pdf")));
+        assertThrows(IllegalArgumentException.class, () -> ContentValidator.validate(fileOf(noTrailer, "pdf")));
+    }
+
+    @Test
+    void level_ShouldParseParameter() {
+        assertEquals(ContentValidator.Level.FAST, ContentValidator.Level.of(null));
+        assertEquals(ContentValidator.Level.DEEP, ContentValidator.Level.of("Deep"));
+        assertThrows(IllegalArgumentException.class, () -> ContentValidator.Level.of("thorough"));
+    }
+}
@@ -0,0 +1,101 @@
+package com.fileprocessing.util;
+
+import com.fileprocessing.model.FileModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DecodedImageContextTest {
+
+    private FileModel imageFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        BufferedImage image = new BufferedImage(40, 20, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", baos);
+        imageFile = FileModel.builder()
+                .fileId("ctx-1")
+                .fileName("ctx.png")
+                .content(baos.toByteArray())
+                .fileType("png")
+                .sizeBytes(baos.size())
+                .build();
+    }
+
+    @Test
+    void image_ShouldDecodeOnceAndShareResult() throws IOException {
+        DecodedImageContext context = new DecodedImageContext(imageFile, 2);
+
+        BufferedImage first = context.image();
+        BufferedImage second = context.image();
+
+        assertNotNull(first);
+        assertSame(first, second);
+        assertEquals(40, first.getWidth());
+    }
+
+    @Test
+    void image_ShouldReturnNull_ForNonImageContent() throws IOException {
+        FileModel notAnImage = new FileModel("ctx-2", "bad.png", "not an image".getBytes(), "png", 12);
+        assertNull(DecodedImageContext.singleUse(notAnImage).image());
+    }
+
+    @Test
+    void image_ShouldCacheRuntimeFailure_ForEverySharer() {
+        FileModel failing = spy(imageFile);
+        IllegalStateException pluginFailure = new IllegalStateException("broken plugin");
+        when(failing.contentStream()).thenThrow(pluginFailure);
+        DecodedImageContext context = new DecodedImageContext(failing, 2);
+
+        assertSame(pluginFailure, assertThrows(IllegalStateException.class, context::image));
+        assertSame(pluginFailure, assertThrows(IllegalStateException.class, context::image));
+        verify(failing, times(1)).contentStream();
+    }
+
+    @Test
+    void release_ShouldDropImageAfterLastUser() throws IOException {
+        DecodedImageContext context = new DecodedImageContext(imageFile, 2);
+        context.image();
+
+        context.release();
+        assertNotNull(context.image());
+
+        context.release();
+        assertThrows(IllegalStateException.class, context::image);
+    }
+
+    @Test
+    void constructor_ShouldThrow_OnNonPositiveUsers() {
+        assertThrows(IllegalArgumentException.class, () -> new DecodedImageContext(imageFile, 0));
+    }
+
+    @Test
+    void operations_ShouldShareContext() throws IOException {
+        DecodedImageContext context = new DecodedImageContext(imageFile, 3);
+
+        FileOperations.validateFile(imageFile, context);
+        Map<String, String> metadata = FileOperations.extractMetadata(imageFile, context);
+        FileModel resized = FileOperations.resizeImage(imageFile, context, 20, 20);
+
+        assertEquals("40", metadata.get("width"));
+        assertEquals("20", metadata.get("height"));
+        assertTrue(resized.sizeBytes() > 0);
+    }
+
+    @Test
+    void operations_ShouldRejectContextOfAnotherFile() {
+        FileModel other = new FileModel("ctx-3", "other.png", imageFile.content(), "png", imageFile.sizeBytes());
+        DecodedImageContext context = DecodedImageContext.singleUse(other);
+
+        assertThrows(IllegalArgumentException.class, () -> FileOperations.validateFile(imageFile, context));
+    }
+}
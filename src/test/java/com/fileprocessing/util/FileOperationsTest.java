@@ -1,5 +1,7 @@
 package com.fileprocessing.util;
 
+import com.fileprocessing.compression.CompressionCodec;
+import com.fileprocessing.compression.GzipCodec;
 import com.fileprocessing.model.FileModel;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,11 +16,18 @@ import java.util.*;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class FileOperationsTest {
+    private static final CompressionCodec GZIP = new GzipCodec(ParallelGzipCompressor.sequential());
+
+    @TempDir
+    Path storageRoot;
+
+    private ContentAddressedStore store;
     private FileModel validImageFile;
     private FileModel invalidImageFile;
     private FileModel largeFile;
@@ -26,6 +35,8 @@ class FileOperationsTest {
 
     @BeforeEach
     void setUp() throws IOException {
+        store = new ContentAddressedStore(storageRoot);
+
         // Create a valid test image
         BufferedImage image = new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB);
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
@@ -131,11 +142,14 @@ class FileOperationsTest {
         assertNotNull(metadata.get("checksum"));
         assertEquals("100", metadata.get("width"));
         assertEquals("100", metadata.get("height"));
+        assertEquals("RGB", metadata.get("colorModel"));
+        assertEquals("8", metadata.get("bitDepth"));
+        assertEquals("1", metadata.get("frameCount"));
     }
 
     @Test
     void compressFile_withValidFile_shouldCreateCompressedFile(@TempDir Path tempDir) throws IOException {
-        Path compressedFile = FileOperations.compressFile(validImageFile);
+        Path compressedFile = FileOperations.compressFile(validImageFile, GZIP, -1, tempDir).path();
 
         assertTrue(Files.exists(compressedFile));
         assertTrue(compressedFile.toString().endsWith(".gz"));
@@ -224,8 +238,8 @@ class FileOperationsTest {
     }
 
     @Test
-    void storeFile_withValidFile_shouldStoreAndReturnPath(@TempDir Path tempDir) throws IOException {
-        Path storedFilePath = FileOperations.storeFile(validImageFile);
+    void storeFile_withValidFile_shouldStoreAndReturnPath() throws IOException {
+        Path storedFilePath = FileOperations.storeFile(validImageFile, store);
 
         assertNotNull(storedFilePath);
         assertTrue(Files.exists(storedFilePath));
@@ -249,7 +263,7 @@ class FileOperationsTest {
     }
 
     @Test
-    void concurrentStoreFile_shouldHandleMultipleThreads(@TempDir Path tempDir) throws InterruptedException {
+    void concurrentStoreFile_shouldHandleMultipleThreads() throws InterruptedException {
         int threadCount = 10;
         CountDownLatch latch = new CountDownLatch(threadCount);
         List<Path> storedPaths = Collections.synchronizedList(new ArrayList<>());
@@ -258,7 +272,7 @@ class FileOperationsTest {
         for (int i = 0; i < threadCount; i++) {
             Thread t = new Thread(() -> {
                 try {
-                    Path path = FileOperations.storeFile(validImageFile);
+                    Path path = FileOperations.storeFile(validImageFile, store);
                     storedPaths.add(path);
                 } finally {
                     latch.countDown();
@@ -339,9 +353,9 @@ class FileOperationsTest {
     }
 
     @Test
-    void compressFile_withAlreadyCompressedFile() throws IOException {
+    void compressFile_withAlreadyCompressedFile(@TempDir Path tempDir) throws IOException {
         // First compression
-        Path firstCompression = FileOperations.compressFile(validImageFile);
+        Path firstCompression = FileOperations.compressFile(validImageFile, GZIP, -1, tempDir).path();
 
         // Create a new FileModel from the compressed file
         byte[] compressedContent = Files.readAllBytes(firstCompression);
@@ -354,7 +368,7 @@ class FileOperationsTest {
                 .build();
 
         // Second compression
-        Path secondCompression = FileOperations.compressFile(compressedFile);
+        Path secondCompression = FileOperations.compressFile(compressedFile, GZIP, -1, tempDir).path();
 
         assertTrue(Files.exists(secondCompression));
         assertTrue(secondCompression.toString().endsWith(".gz"));
@@ -362,6 +376,44 @@ class FileOperationsTest {
         assertTrue(Files.size(secondCompression) > 0);
     }
 
+    @Test
+    @SuppressWarnings("deprecation")
+    void compressFile_withDefaults_shouldWriteGzip() throws IOException {
+        Path compressedFile = FileOperations.compressFile(validImageFile);
+
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(compressedFile))) {
+            assertArrayEquals(validImageFile.content(), in.readAllBytes());
+        } finally {
+            Files.deleteIfExists(compressedFile);
+            Files.deleteIfExists(compressedFile.getParent());
+        }
+    }
+
+    @Test
+    void compressFile_twice_shouldReplaceEarlierOutput(@TempDir Path tempDir) throws IOException {
+        Path first = FileOperations.compressFile(validImageFile, GZIP, -1, tempDir).path();
+        Path second = FileOperations.compressFile(validImageFile, GZIP, -1, tempDir).path();
+
+        assertEquals(first, second);
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(List.of(second), files.toList());
+        }
+    }
+
+    @Test
+    void compressFile_withTraversingFileId_shouldThrowIllegalArgumentException(@TempDir Path tempDir)
+            throws IOException {
+        Path outputDirectory = tempDir.resolve("compressed");
+        FileModel traversing = new FileModel("../escape", "test.png", validImageFile.content(), "png",
+                validImageFile.sizeBytes());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> FileOperations.compressFile(traversing, GZIP, -1, outputDirectory));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertTrue(files.allMatch(outputDirectory::equals));
+        }
+    }
+
     @Test
     void convertFormat_withSameSourceAndTargetFormat_shouldReturnEquivalentFile() throws IOException {
         FileModel converted = FileOperations.convertFormat(validImageFile, validImageFile.fileType());
@@ -450,7 +502,7 @@ class FileOperationsTest {
                 .build();
 
         // Create storage directory with restricted permissions
-        Path storageDir = Path.of(FileOperations.STORAGE_DIR, "png");
+        Path storageDir = storageRoot.resolve("png");
         Files.createDirectories(storageDir);
 
         // Make the directory read-only with all parent permissions
@@ -458,7 +510,7 @@ class FileOperationsTest {
 
         try {
             assertThrows(RuntimeException.class,
-                    () -> FileOperations.storeFile(validFile));
+                    () -> FileOperations.storeFile(validFile, store));
         } finally {
             // Restore write permissions for cleanup
             storageDir.toFile().setWritable(true);
@@ -488,7 +540,7 @@ class FileOperationsTest {
             Thread t = new Thread(() -> {
                 try {
                     startLatch.await(); // Wait for all threads to be ready
-                    FileOperations.storeFile(validImageFile);
+                    FileOperations.storeFile(validImageFile, store);
                 } catch (Exception e) {
                     exceptions.add(e);
                 } finally {
@@ -569,14 +621,14 @@ class FileOperationsTest {
                 .sizeBytes(validImageFile.sizeBytes())
                 .build();
 
-        // Create and restrict the actual storage directory used by FileOperations
-        Path storageDir = Path.of(FileOperations.STORAGE_DIR, "png");
+        // Create and restrict the storage directory used by the store
+        Path storageDir = storageRoot.resolve("png");
         Files.createDirectories(storageDir);
         storageDir.toFile().setReadOnly();
 
         try {
             assertThrows(RuntimeException.class,
-                    () -> FileOperations.storeFile(restrictedFile));
+                    () -> FileOperations.storeFile(restrictedFile, store));
         } finally {
             // Restore permissions and cleanup
             storageDir.toFile().setWritable(true);
@@ -0,0 +1,136 @@
+package com.fileprocessing.util;
+
+import com.fileprocessing.model.FileModel;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageHeaderReaderTest {
+
+    private static FileModel fileOf(byte[] content, String type) {
+        return new FileModel("header-1", "image." + type, content, type, content.length);
+    }
+
+    private static byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(image, format, baos);
+        return baos.toByteArray();
+    }
+
+    private static void writeChunk(DataOutputStream out, String type, byte[] data) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+        out.writeInt(data.length);
+        out.write(typeBytes);
+        out.write(data);
+        out.writeInt((int) crc.getValue());
+    }
+
+    @Test
+    void read_ShouldReportPngHeader() throws IOException {
+        byte[] png = encode(new BufferedImage(120, 80, BufferedImage.TYPE_INT_ARGB), "png");
+
+        ImageHeaderReader.ImageHeader header = ImageHeaderReader.read(fileOf(png, "png")).orElseThrow();
+
+        assertEquals(new ImageHeaderReader.ImageHeader("png", 120, 80, "RGBA", 8, 1), header);
+    }
+
+    @Test
+    void read_ShouldReportGrayJpegHeader() throws IOException {
+        byte[] jpeg = encode(new BufferedImage(64, 48, BufferedImage.TYPE_BYTE_GRAY), "jpg");
+
+        ImageHeaderReader.ImageHeader header = ImageHeaderReader.read(fileOf(jpeg, "jpg")).orElseThrow();
+
+        assertEquals("jpeg", header.format());
+        assertEquals(64, header.width());
+        assertEquals(48, header.height());
+        assertEquals("GRAY", header.colorModel());
+        assertEquals(8, header.bitDepth());
+    }
+
+    @Test
+    void read_ShouldCountGifFrames() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("gif").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(baos)) {
+            writer.setOutput(out);
+            writer.prepareWriteSequence(null);
+            for (int i = 0; i < 3; i++) {
+                writer.writeToSequence(new IIOImage(
+                        new BufferedImage(16, 16, BufferedImage.TYPE_BYTE_INDEXED), null, null), null);
+            }
+            writer.endWriteSequence();
+        } finally {
+            writer.dispose();
+        }
+
+        ImageHeaderReader.ImageHeader header =
+                ImageHeaderReader.read(fileOf(baos.toByteArray(), "gif")).orElseThrow();
+
+        assertEquals("INDEXED", header.colorModel());
+        assertEquals(3, header.frameCount());
+    }
+
+    @Test
+    void read_ShouldNotDecodeRaster() throws IOException {
+        // Declares 40000 x 40000 RGB pixels (4.8 GB decoded) but carries no pixel data
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(baos);
+        out.write(new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'});
+        ByteArrayOutputStream ihdr = new ByteArrayOutputStream();
+        DataOutputStream ihdrOut = new DataOutputStream(ihdr);
+        ihdrOut.writeInt(40_000);
+        ihdrOut.writeInt(40_000);
+        ihdrOut.write(new byte[]{8, 2, 0, 0, 0}); // 8-bit truecolor, no interlace
+        writeChunk(out, "IHDR", ihdr.toByteArray());
+        writeChunk(out, "IDAT", new byte[0]);
+        writeChunk(out, "IEND", new byte[0]);
+
+        ImageHeaderReader.ImageHeader header =
+                ImageHeaderReader.read(fileOf(baos.toByteArray(), "png")).orElseThrow();
+
+        assertEquals(40_000, header.width());
+        assertEquals(40_000, header.height());
+        assertEquals("RGB", header.colorModel());
+    }
+
+    @Test
+    void read_ShouldReportHeader_WhenBytesFollowTheTrailer() throws IOException {
+        byte[] jpeg = encode(new BufferedImage(64, 48, BufferedImage.TYPE_INT_RGB), "jpg");
+        byte[] gif = encode(new BufferedImage(30, 20, BufferedImage.TYPE_BYTE_INDEXED), "gif");
+        byte[] paddedJpeg = Arrays.copyOf(jpeg, jpeg.length + 512);
+        byte[] appendedGif = Arrays.copyOf(gif, gif.length + 16);
+        appendedGif[gif.length] = 'X';
+
+        ImageHeaderReader.ImageHeader jpegHeader = ImageHeaderReader.read(fileOf(paddedJpeg, "jpg")).orElseThrow();
+        ImageHeaderReader.ImageHeader gifHeader = ImageHeaderReader.read(fileOf(appendedGif, "gif")).orElseThrow();
+
+        assertEquals(64, jpegHeader.width());
+        assertEquals(48, jpegHeader.height());
+        assertEquals("RGB", jpegHeader.colorModel());
+        assertEquals(30, gifHeader.width());
+        assertEquals("INDEXED", gifHeader.colorModel());
+    }
+
+    @Test
+    void read_ShouldBeEmpty_ForTruncatedOrNonImageContent() throws IOException {
+        byte[] png = encode(new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB), "png");
+
+        assertTrue(ImageHeaderReader.read(fileOf(Arrays.copyOf(png, png.length - 1), "png")).isEmpty());
+        assertTrue(ImageHeaderReader.read(fileOf("not an image".getBytes(), "png")).isEmpty());
+    }
+}
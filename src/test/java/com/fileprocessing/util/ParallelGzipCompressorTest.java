@@ -0,0 +1,176 @@
+package com.fileprocessing.util;
+
+import com.google.protobuf.ByteString;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelGzipCompressorTest {
+
+    private static final int BLOCK = ParallelGzipCompressor.MIN_BLOCK_SIZE;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /** Half random, half repetitive content, so compression has something to do either way. */
+    private static ByteString contentOf(int size) {
+        byte[] bytes = new byte[size];
+        Random random = new Random(42);
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (i / 1024) % 2 == 0 ? (byte) random.nextInt() : (byte) ('a' + i % 7);
+        }
+        return ByteString.copyFrom(bytes);
+    }
+
+    private static byte[] compress(ParallelGzipCompressor compressor, ByteString content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        compressor.compress(content, out);
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    void compress_ShouldRoundTrip_AcrossManyBlocks() throws IOException {
+        ByteString content = contentOf(BLOCK * 10 + 123);
+        ParallelGzipCompressor compressor = new ParallelGzipCompressor(6, BLOCK, executor, 3);
+
+        byte[] compressed = compress(compressor, content);
+
+        assertArrayEquals(content.toByteArray(), gunzip(compressed));
+        assertEquals(11, compressor.membersFor(content.size()));
+    }
+
+    @Test
+    void compress_ShouldWriteSingleMember_WhenContentFitsInOneBlock() throws IOException {
+        ByteString content = contentOf(BLOCK);
+        ParallelGzipCompressor compressor = new ParallelGzipCompressor(6, BLOCK, executor, 4);
+
+        byte[] compressed = compress(compressor, content);
+
+        assertArrayEquals(content.toByteArray(), gunzip(compressed));
+        assertEquals(1, compressor.membersFor(content.size()));
+    }
+
+    @Test
+    void sequential_ShouldRoundTrip_OnCallingThread() throws IOException {
+        ByteString content = contentOf(BLOCK * 3);
+
+        byte[] compressed = compress(ParallelGzipCompressor.sequential(), content);
+
+        assertArrayEquals(content.toByteArray(), gunzip(compressed));
+        assertEquals(1, ParallelGzipCompressor.sequential().membersFor(content.size()));
+    }
+
+    @Test
+    void compress_ShouldHonourLevel() throws IOException {
+        ByteString content = contentOf(BLOCK * 4);
+
+        int fastest = compress(new ParallelGzipCompressor(1, BLOCK, executor, 2), content).length;
+        int smallest = compress(new ParallelGzipCompressor(9, BLOCK, executor, 2), content).length;
+
+        assertTrue(smallest <= fastest, "level 9 (" + smallest + ") should not exceed level 1 (" + fastest + ")");
+    }
+
+    @Test
+    void withLevel_ShouldStoreUncompressed_AtLevelZero() throws IOException {
+        ByteString content = contentOf(BLOCK * 2);
+        ParallelGzipCompressor compressor = new ParallelGzipCompressor(6, BLOCK, executor, 2).withLevel(0);
+
+        byte[] compressed = compress(compressor, content);
+
+        assertArrayEquals(content.toByteArray(), gunzip(compressed));
+        assertTrue(compressed.length > content.size(), "stored blocks only add framing");
+    }
+
+    @Test
+    void compress_ShouldPropagateWriteFailures() {
+        ParallelGzipCompressor compressor = new ParallelGzipCompressor(6, BLOCK, executor, 2);
+        OutputStream failing = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("disk full");
+            }
+        };
+
+        IOException e = assertThrows(IOException.class, () -> compressor.compress(contentOf(BLOCK * 5), failing));
+        assertEquals("disk full", e.getMessage());
+    }
+
+    @Test
+    void compress_ShouldNotDeadlock_WhenCallerOccupiesTheOnlyWorker() throws Exception {
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        try {
+            ByteString content = contentOf(BLOCK * 8);
+            ParallelGzipCompressor compressor = new ParallelGzipCompressor(6, BLOCK, single, 4);
+
+            // Every block is queued behind the task compressing them
+            Future<byte[]> compressed = single.submit(() -> compress(compressor, content));
+
+            assertArrayEquals(content.toByteArray(), gunzip(compressed.get(30, TimeUnit.SECONDS)));
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    @Test
+    void compress_ShouldComplete_WhenEveryWorkerIsCompressing() throws Exception {
+        // Room in the queue, so CallerRunsPolicy never helps: blocks wait behind the compressions themselves
+        ThreadPoolExecutor saturated = new ThreadPoolExecutor(2, 2, 0, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(64), new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            ByteString content = contentOf(BLOCK * 6);
+            ParallelGzipCompressor compressor = new ParallelGzipCompressor(6, BLOCK, saturated, 4);
+
+            List<Future<byte[]>> results = new ArrayList<>();
+            for (int i = 0; i < saturated.getMaximumPoolSize(); i++) {
+                results.add(saturated.submit(() -> compress(compressor, content)));
+            }
+
+            for (Future<byte[]> result : results) {
+                assertArrayEquals(content.toByteArray(), gunzip(result.get(30, TimeUnit.SECONDS)));
+            }
+        } finally {
+            saturated.shutdownNow();
+        }
+    }
+
+    @Test
+    void constructor_ShouldRejectInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelGzipCompressor(10, BLOCK, executor, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelGzipCompressor(-2, BLOCK, executor, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelGzipCompressor(6, 1024, executor, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelGzipCompressor(6, BLOCK, executor, 0));
+    }
+}